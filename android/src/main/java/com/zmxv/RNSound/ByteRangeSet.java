@@ -0,0 +1,71 @@
+package com.zmxv.RNSound;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* Sorted set of non-overlapping [start, end) byte ranges, merged on insert
+*/
+class ByteRangeSet {
+
+	private final List<long[]> ranges = new ArrayList<>();
+
+	synchronized void add(final long start, final long end) {
+		if (end <= start) return;
+		long mergedStart = start;
+		long mergedEnd = end;
+		int index = 0;
+		while (index < this.ranges.size()) {
+			long[] range = this.ranges.get(index);
+			if (range[1] < mergedStart) {
+				index++;
+			} else if (range[0] > mergedEnd) {
+				break;
+			} else {
+				mergedStart = Math.min(mergedStart, range[0]);
+				mergedEnd = Math.max(mergedEnd, range[1]);
+				this.ranges.remove(index);
+			}
+		}
+		this.ranges.add(index, new long[] { mergedStart, mergedEnd });
+	}
+
+	synchronized void clear() {
+		this.ranges.clear();
+	}
+
+	synchronized boolean contains(final long start, final long end) {
+		return this.coveredFrom(start) >= end;
+	}
+
+	/**
+	* Returns the end of the contiguous range that covers position, or position itself if it is not covered
+	*/
+	synchronized long coveredFrom(final long position) {
+		for (long[] range : this.ranges) {
+			if (range[0] <= position && position < range[1]) return range[1];
+		}
+		return position;
+	}
+
+	/**
+	* Returns the first missing [start, end) range within [from, limit), or null if it is fully covered
+	*/
+	synchronized long[] firstGap(final long from, final long limit) {
+		long position = from;
+		for (long[] range : this.ranges) {
+			if (range[1] <= position) continue;
+			if (range[0] > position) return new long[] { position, Math.min(range[0], limit) };
+			position = range[1];
+			if (position >= limit) return null;
+		}
+		return position < limit ? new long[] { position, limit } : null;
+	}
+
+	synchronized List<long[]> snapshot() {
+		List<long[]> copy = new ArrayList<>(this.ranges.size());
+		for (long[] range : this.ranges) copy.add(new long[] { range[0], range[1] });
+		return copy;
+	}
+
+}
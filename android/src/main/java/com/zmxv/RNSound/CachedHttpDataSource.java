@@ -0,0 +1,41 @@
+package com.zmxv.RNSound;
+
+import android.media.MediaDataSource;
+
+import java.io.IOException;
+
+/**
+* MediaDataSource for an HTTP(S) url that reads through the shared HttpCacheEntry of the HttpRangeCache,
+* so playback can start before the download finishes and replays never touch the network.
+*/
+class CachedHttpDataSource extends MediaDataSource {
+
+	private final HttpRangeCache cache;
+	private final HttpCacheEntry entry;
+	private final int generation;
+	private boolean closed = false;
+
+	CachedHttpDataSource(final HttpRangeCache cache, final HttpCacheEntry entry) {
+		this.cache = cache;
+		this.entry = entry;
+		this.generation = entry.getGeneration();
+	}
+
+	@Override
+	public long getSize() throws IOException {
+		return this.entry.getSize();
+	}
+
+	@Override
+	public int readAt(long position, byte[] buffer, int offset, int length) throws IOException {
+		return this.entry.read(this.generation, position, buffer, offset, length);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.closed) return;
+		this.closed = true;
+		this.cache.onClosed(this.entry);
+	}
+
+}
@@ -0,0 +1,221 @@
+package com.zmxv.RNSound;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Base64;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+* Resolves data source strings to what the engines open, and memoizes the result per string, so repeated loads skip the
+* resource lookup and file checks. Schemes are matched by prefix; bare names are raw resources and anything else is a path.
+* data: URIs are decoded once into a file. Entries are kept until invalidated, or until MAX_ENTRIES newer sources push them out.
+*/
+class DataSourceResolver {
+
+	private static final int MAX_ENTRIES = 256;
+	private static final String DATA_SUFFIX = ".bin";
+
+	/**
+	* Resolves data sources starting with the prefix it is registered for
+	*/
+	interface Scheme {
+		Resolved resolve(String dataSource) throws Exception;
+	}
+
+	/**
+	* One of the SoundMetrics schemes, with the resource id for raw sources, and the asset name, URL, path or content URI
+	* for the others. Decoded sources point at a generated file that is checked before a cached entry is reused.
+	*/
+	static class Resolved {
+		final int scheme;
+		final String location;
+		final int resId;
+		final boolean decoded;
+
+		Resolved(final int scheme, final String location, final int resId, final boolean decoded) {
+			this.scheme = scheme;
+			this.location = location;
+			this.resId = resId;
+			this.decoded = decoded;
+		}
+	}
+
+	private final Context context;
+	private final File dataDir;
+	private final List<String> prefixes = new ArrayList<>();
+	private final List<Scheme> schemes = new ArrayList<>();
+	private final Map<String, Resolved> entries = new LinkedHashMap<String, Resolved>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Resolved> eldest) {
+			return this.size() > MAX_ENTRIES;
+		}
+	};
+	private long hits = 0;
+	private long misses = 0;
+	private long resolveNanos = 0;
+
+	DataSourceResolver(final Context context, final File dataDir) {
+		this.context = context;
+		this.dataDir = dataDir;
+		this.register("asset:/", new Scheme() {
+			@Override
+			public Resolved resolve(String dataSource) {
+				return new Resolved(SoundMetrics.SCHEME_ASSET, dataSource.substring("asset:/".length()), 0, false);
+			}
+		});
+		Scheme http = new Scheme() {
+			@Override
+			public Resolved resolve(String dataSource) {
+				return new Resolved(SoundMetrics.SCHEME_HTTP, dataSource, 0, false);
+			}
+		};
+		this.register("http://", http);
+		this.register("https://", http);
+		this.register("content://", new Scheme() {
+			@Override
+			public Resolved resolve(String dataSource) {
+				return new Resolved(SoundMetrics.SCHEME_CONTENT, dataSource, 0, false);
+			}
+		});
+		this.register("file://", new Scheme() {
+			@Override
+			public Resolved resolve(String dataSource) throws Exception {
+				return resolveFile(Uri.parse(dataSource).getPath());
+			}
+		});
+		this.register("data:", new Scheme() {
+			@Override
+			public Resolved resolve(String dataSource) throws Exception {
+				return decode(dataSource);
+			}
+		});
+	}
+
+	/**
+	* Routes sources starting with the prefix to the scheme, ahead of schemes registered earlier
+	*/
+	synchronized void register(final String prefix, final Scheme scheme) {
+		this.prefixes.add(0, prefix);
+		this.schemes.add(0, scheme);
+		this.entries.clear();
+	}
+
+	Resolved resolve(final String dataSource) throws Exception {
+		synchronized (this) {
+			Resolved cached = this.entries.get(dataSource);
+			if (cached != null && (cached.scheme != SoundMetrics.SCHEME_FILE || new File(cached.location).exists())) {
+				this.hits++;
+				return cached;
+			}
+		}
+		long start = System.nanoTime();
+		Resolved resolved;
+		try {
+			resolved = this.resolveUncached(dataSource);
+		} finally {
+			synchronized (this) {
+				this.misses++;
+				this.resolveNanos += System.nanoTime() - start;
+			}
+		}
+		synchronized (this) {
+			this.entries.put(dataSource, resolved);
+		}
+		return resolved;
+	}
+
+	/**
+	* Forgets the resolution of one source, or of all sources if null, and deletes the files decoded for them
+	*/
+	void invalidate(final String dataSource) {
+		List<Resolved> removed = new ArrayList<>();
+		synchronized (this) {
+			Iterator<Map.Entry<String, Resolved>> iterator = this.entries.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<String, Resolved> entry = iterator.next();
+				if (dataSource != null && !dataSource.equals(entry.getKey())) continue;
+				removed.add(entry.getValue());
+				iterator.remove();
+			}
+		}
+		for (Resolved resolved : removed) {
+			if (resolved.decoded) new File(resolved.location).delete();
+		}
+	}
+
+	synchronized WritableMap getStats() {
+		long lookups = this.hits + this.misses;
+		WritableMap map = Arguments.createMap();
+		map.putInt("entries", this.entries.size());
+		map.putDouble("hits", this.hits);
+		map.putDouble("misses", this.misses);
+		map.putDouble("hitRate", lookups > 0 ? (double) this.hits / lookups : 0);
+		map.putDouble("totalResolveMs", this.resolveNanos / 1e6);
+		map.putDouble("averageResolveMs", this.misses > 0 ? this.resolveNanos / 1e6 / this.misses : 0);
+		return map;
+	}
+
+	private Resolved resolveUncached(final String dataSource) throws Exception {
+		Scheme scheme = null;
+		synchronized (this) {
+			for (int i = 0; i < this.prefixes.size() && scheme == null; i++) {
+				if (dataSource.startsWith(this.prefixes.get(i))) scheme = this.schemes.get(i);
+			}
+		}
+		if (scheme != null) return scheme.resolve(dataSource);
+		if (dataSource.indexOf('/') < 0) {
+			int resId = this.context.getResources().getIdentifier(dataSource, "raw", this.context.getPackageName());
+			if (resId != 0) return new Resolved(SoundMetrics.SCHEME_RAW, dataSource, resId, false);
+		}
+		return this.resolveFile(dataSource);
+	}
+
+	private Resolved resolveFile(final String path) throws Exception {
+		if (path == null || !new File(path).exists()) throw new Exception("File does not exist with name: " + path);
+		return new Resolved(SoundMetrics.SCHEME_FILE, path, 0, false);
+	}
+
+	/**
+	* Writes the payload of a base64 data: URI to a file named by its hash, which is reused while it exists. Each decode
+	* writes its own temporary file, so concurrent decodes of one URI never interleave.
+	*/
+	private Resolved decode(final String dataSource) throws Exception {
+		int comma = dataSource.indexOf(',');
+		if (comma < 0) throw new Exception("Malformed data URI");
+		if (!dataSource.substring(0, comma).endsWith(";base64")) throw new Exception("Only base64 data URIs are supported");
+		File file = new File(this.dataDir, SoundHashes.sha1Hex(dataSource) + DATA_SUFFIX);
+		if (!file.exists()) {
+			byte[] bytes = Base64.decode(dataSource.substring(comma + 1), Base64.DEFAULT);
+			if (!this.dataDir.isDirectory() && !this.dataDir.mkdirs()) throw new IOException("Could not create " + this.dataDir);
+			File temp = File.createTempFile(file.getName(), ".tmp", this.dataDir);
+			try {
+				FileOutputStream out = new FileOutputStream(temp);
+				try {
+					out.write(bytes);
+				} finally {
+					out.close();
+				}
+			} catch (IOException e) {
+				temp.delete();
+				throw e;
+			}
+			if (!temp.renameTo(file)) {
+				temp.delete();
+				if (!file.exists()) throw new IOException("Could not write " + file);
+			}
+		}
+		return new Resolved(SoundMetrics.SCHEME_FILE, file.getPath(), 0, true);
+	}
+
+}
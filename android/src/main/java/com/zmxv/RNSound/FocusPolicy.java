@@ -0,0 +1,75 @@
+package com.zmxv.RNSound;
+
+import android.media.AudioManager;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* What the module does natively with its sounds when audio focus changes. Each kind of focus loss can be
+* ignored, duck every sound to duckVolume, or pause the playing sounds, which are resumed on regain if enabled.
+* Everything is ignored by default, leaving focus handling to JS.
+*/
+class FocusPolicy {
+
+	static final int IGNORE = 0;
+	static final int DUCK = 1;
+	static final int PAUSE = 2;
+	static final float DEFAULT_DUCK_VOLUME = 0.2f;
+
+	private int onLoss = IGNORE;
+	private int onLossTransient = IGNORE;
+	private int onLossTransientCanDuck = IGNORE;
+	private float duckVolume = DEFAULT_DUCK_VOLUME;
+	private boolean resumeOnGain = true;
+	private final List<Integer> pausedKeys = new ArrayList<>();
+
+	/**
+	* Reads { loss?, lossTransient?, lossTransientCanDuck?, duckVolume?, resumeOnGain? }. Actions are "ignore", "duck" or "pause".
+	*/
+	synchronized void configure(final ReadableMap options) {
+		if (options.hasKey("loss")) this.onLoss = parseAction(options.getString("loss"));
+		if (options.hasKey("lossTransient")) this.onLossTransient = parseAction(options.getString("lossTransient"));
+		if (options.hasKey("lossTransientCanDuck")) this.onLossTransientCanDuck = parseAction(options.getString("lossTransientCanDuck"));
+		if (options.hasKey("duckVolume")) this.duckVolume = Math.max(0, Math.min(1, (float) options.getDouble("duckVolume")));
+		if (options.hasKey("resumeOnGain")) this.resumeOnGain = options.getBoolean("resumeOnGain");
+	}
+
+	synchronized int getAction(final int focusChange) {
+		if (focusChange == AudioManager.AUDIOFOCUS_LOSS) return this.onLoss;
+		if (focusChange == AudioManager.AUDIOFOCUS_LOSS_TRANSIENT) return this.onLossTransient;
+		if (focusChange == AudioManager.AUDIOFOCUS_LOSS_TRANSIENT_CAN_DUCK) return this.onLossTransientCanDuck;
+		return IGNORE;
+	}
+
+	synchronized float getDuckVolume() {
+		return this.duckVolume;
+	}
+
+	synchronized boolean shouldResumeOnGain() {
+		return this.resumeOnGain;
+	}
+
+	synchronized void markPaused(final int key) {
+		if (!this.pausedKeys.contains(key)) this.pausedKeys.add(key);
+	}
+
+	/**
+	* Returns the keys paused for a focus loss and forgets them
+	*/
+	synchronized int[] takePaused() {
+		int[] keys = new int[this.pausedKeys.size()];
+		for (int i = 0; i < keys.length; i++) keys[i] = this.pausedKeys.get(i);
+		this.pausedKeys.clear();
+		return keys;
+	}
+
+	private static int parseAction(final String action) {
+		if ("duck".equals(action)) return DUCK;
+		if ("pause".equals(action)) return PAUSE;
+		return IGNORE;
+	}
+
+}
@@ -0,0 +1,332 @@
+package com.zmxv.RNSound;
+
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+* Sparse cached copy of one HTTP(S) url, shared by every CachedHttpDataSource open on it, so concurrent readers add to
+* one range set and one metadata file. Missing bytes are fetched with Range requests on demand while a background thread
+* downloads the rest. The ETag, or else the Last-Modified date, is stored with the ranges and sent as If-Range, so bytes
+* of a changed remote file are never mixed with cached ones. A complete copy is revalidated in the background when opened,
+* and downloaded again on the next open if the remote file changed.
+*/
+class HttpCacheEntry {
+
+	private static final String TAG = "RNSoundHttpCacheEntry";
+	private static final String META_VERSION = "2";
+	private static final int CHUNK_BYTES = 512 * 1024;
+	private static final int BUFFER_BYTES = 16 * 1024;
+	private static final int TIMEOUT_MS = 15000;
+
+	final String name;
+	final String url;
+	private final HttpRangeCache cache;
+	private final File dataFile;
+	private final File metaFile;
+	private final RandomAccessFile file;
+	private final ByteRangeSet ranges = new ByteRangeSet();
+	private volatile long size = -1;
+	private volatile int generation = 0;
+	private volatile boolean closed = false;
+	private volatile boolean stale = false;
+	private String validator;
+	private int openCount = 0;
+	private Thread worker;
+
+	HttpCacheEntry(final HttpRangeCache cache, final String name, final String url, final File dataFile, final File metaFile) throws IOException {
+		this.cache = cache;
+		this.name = name;
+		this.url = url;
+		this.dataFile = dataFile;
+		this.metaFile = metaFile;
+		this.readMeta();
+		this.file = new RandomAccessFile(dataFile, "rw");
+	}
+
+	/**
+	* Registers a reader. The first one starts the download of missing bytes, or the revalidation of a complete copy.
+	* Must be called with the cache locked.
+	*/
+	void retain() {
+		if (this.openCount++ > 0) return;
+		final boolean complete = this.isComplete();
+		if (complete && this.getValidator() == null) return;
+		this.worker = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				if (complete) revalidate();
+				else prefetch();
+			}
+		}, TAG);
+		this.worker.start();
+	}
+
+	/**
+	* Unregisters a reader and returns true if it was the last one. Must be called with the cache locked.
+	*/
+	boolean release() {
+		return --this.openCount <= 0;
+	}
+
+	/**
+	* Stops the download and closes the file. A copy found to be outdated is deleted, so the next open starts over.
+	*/
+	void close() {
+		this.closed = true;
+		if (this.worker != null) this.worker.interrupt();
+		synchronized (this.file) {
+			try {
+				this.file.close();
+			} catch (IOException ignored) {}
+		}
+		if (!this.stale) return;
+		this.metaFile.delete();
+		this.dataFile.delete();
+	}
+
+	int getGeneration() {
+		return this.generation;
+	}
+
+	boolean isComplete() {
+		return this.size >= 0 && this.ranges.contains(0, this.size);
+	}
+
+	long getSize() throws IOException {
+		this.ensureSize();
+		return this.size;
+	}
+
+	/**
+	* Reads cached bytes, fetching them first if missing. Fails if the remote file changed since the reader opened it.
+	*/
+	int read(final int generation, final long position, final byte[] buffer, final int offset, final int length) throws IOException {
+		this.ensureSize();
+		this.checkGeneration(generation);
+		long size = this.size;
+		if (position >= size) return -1;
+		long end = Math.min(size, position + length);
+		if (end == position) return 0;
+		if (!this.ranges.contains(position, end)) {
+			this.fetch(position, Math.min(size, Math.max(end, position + CHUNK_BYTES)));
+		}
+		int available = (int) (Math.min(end, this.ranges.coveredFrom(position)) - position);
+		if (available <= 0) throw new IOException("Could not fetch bytes at " + position + " of " + this.url);
+		synchronized (this.file) {
+			this.checkGeneration(generation);
+			this.file.seek(position);
+			this.file.readFully(buffer, offset, available);
+		}
+		return available;
+	}
+
+	private void checkGeneration(final int generation) throws IOException {
+		if (generation != this.generation) throw new IOException("Remote file changed while reading " + this.url);
+	}
+
+	/**
+	* Downloads missing bytes while the copy fits in the cache budget, trimming other entries as it grows
+	*/
+	private void prefetch() {
+		try {
+			this.ensureSize();
+			while (!this.closed && this.size <= this.cache.getMaxBytes()) {
+				long[] gap = this.ranges.firstGap(0, this.size);
+				if (gap == null) break;
+				this.fetch(gap[0], Math.min(gap[1], gap[0] + CHUNK_BYTES));
+			}
+			if (!this.closed && this.isComplete() && SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Download complete: " + this.url);
+		} catch (IOException e) {
+			if (!this.closed && SoundLog.isLoggable(Log.WARN)) Log.w(TAG, "Prefetch stopped for " + this.url, e);
+		}
+	}
+
+	/**
+	* Compares the validator of a complete copy with a HEAD request. Readers keep the consistent old copy, which is
+	* deleted once they close.
+	*/
+	private void revalidate() {
+		HttpURLConnection connection = null;
+		try {
+			connection = (HttpURLConnection) new URL(this.url).openConnection();
+			connection.setConnectTimeout(TIMEOUT_MS);
+			connection.setReadTimeout(TIMEOUT_MS);
+			connection.setRequestMethod("HEAD");
+			if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) return;
+			String received = getValidator(connection);
+			if (received == null || received.equals(this.getValidator())) return;
+			this.stale = true;
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Remote file changed, downloading again on next open: " + this.url);
+		} catch (IOException e) {
+			if (!this.closed && SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Could not revalidate " + this.url + ": " + e.getMessage());
+		} finally {
+			if (connection != null) connection.disconnect();
+		}
+	}
+
+	private void ensureSize() throws IOException {
+		if (this.size < 0) this.fetch(0, CHUNK_BYTES);
+	}
+
+	private void fetch(final long start, final long end) throws IOException {
+		String validator = this.getValidator();
+		HttpURLConnection connection = (HttpURLConnection) new URL(this.url).openConnection();
+		try {
+			connection.setConnectTimeout(TIMEOUT_MS);
+			connection.setReadTimeout(TIMEOUT_MS);
+			connection.setRequestProperty("Range", "bytes=" + start + "-" + (end - 1));
+			if (validator != null) connection.setRequestProperty("If-Range", validator);
+			int code = connection.getResponseCode();
+			long position;
+			long total;
+			if (code == HttpURLConnection.HTTP_PARTIAL) {
+				position = start;
+				total = parseTotal(connection.getHeaderField("Content-Range"));
+			} else if (code == HttpURLConnection.HTTP_OK) {
+				position = 0;
+				total = parseLong(connection.getHeaderField("Content-Length"));
+			} else {
+				throw new IOException("Unexpected HTTP status " + code + " for " + this.url);
+			}
+			int generation = this.accept(getValidator(connection), total);
+			if (this.size < 0) throw new IOException("Unknown content length for " + this.url);
+			long limit = Math.min(end, this.size);
+			InputStream input = connection.getInputStream();
+			byte[] buffer = new byte[BUFFER_BYTES];
+			try {
+				while (position < limit && !this.closed) {
+					int read = input.read(buffer);
+					if (read < 0) break;
+					int skip = (int) Math.max(0, Math.min(read, start - position));
+					int count = (int) Math.min(read - skip, limit - position - skip);
+					if (count > 0 && !this.write(generation, position + skip, buffer, skip, count)) break;
+					position += read;
+				}
+			} finally {
+				input.close();
+			}
+			this.writeMeta();
+		} finally {
+			connection.disconnect();
+		}
+		this.cache.trim();
+	}
+
+	/**
+	* Records the validator and size of a response, first dropping every cached range if the validator changed.
+	* Returns the generation the response bytes belong to.
+	*/
+	private int accept(final String received, final long total) throws IOException {
+		synchronized (this.file) {
+			synchronized (this) {
+				if (received != null && this.validator != null && !received.equals(this.validator)) {
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Remote file changed, dropping cached ranges of " + this.url);
+					this.generation++;
+					this.ranges.clear();
+					this.size = -1;
+					this.file.setLength(0);
+				}
+				if (received != null) this.validator = received;
+				if (total >= 0) this.size = total;
+				return this.generation;
+			}
+		}
+	}
+
+	/**
+	* Writes fetched bytes, unless the cached copy was dropped since they were requested
+	*/
+	private boolean write(final int generation, final long position, final byte[] buffer, final int offset, final int count) throws IOException {
+		synchronized (this.file) {
+			if (generation != this.generation) return false;
+			this.file.seek(position);
+			this.file.write(buffer, offset, count);
+			this.ranges.add(position, position + count);
+		}
+		return true;
+	}
+
+	private synchronized String getValidator() {
+		return this.validator;
+	}
+
+	/**
+	* Prefers the ETag, which also works as If-Range, over the Last-Modified date
+	*/
+	private static String getValidator(final HttpURLConnection connection) {
+		String etag = connection.getHeaderField("ETag");
+		if (etag != null && !etag.startsWith("W/")) return etag;
+		return connection.getHeaderField("Last-Modified");
+	}
+
+	private static long parseTotal(final String contentRange) {
+		if (contentRange == null) return -1;
+		int slash = contentRange.lastIndexOf('/');
+		return slash < 0 ? -1 : parseLong(contentRange.substring(slash + 1));
+	}
+
+	private static long parseLong(final String value) {
+		if (value == null) return -1;
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private void readMeta() {
+		if (!this.metaFile.exists()) return;
+		try {
+			BufferedReader reader = new BufferedReader(new FileReader(this.metaFile));
+			try {
+				if (!META_VERSION.equals(reader.readLine())) throw new IOException("Unknown metadata version");
+				this.size = Long.parseLong(reader.readLine());
+				String validator = reader.readLine();
+				this.validator = validator == null || validator.isEmpty() ? null : validator;
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] parts = line.split(" ");
+					this.ranges.add(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, "Discarding unreadable cache metadata for " + this.url, e);
+			this.size = -1;
+			this.validator = null;
+			this.ranges.clear();
+		}
+	}
+
+	/**
+	* Skipped once the entry is closed, as a newer entry for the same url may own the files by then
+	*/
+	private void writeMeta() throws IOException {
+		synchronized (this.file) {
+			if (this.closed) return;
+			synchronized (this) {
+				Writer writer = new FileWriter(this.metaFile);
+				try {
+					writer.write(META_VERSION + "\n");
+					writer.write(this.size + "\n");
+					writer.write((this.validator != null ? this.validator : "") + "\n");
+					for (long[] range : this.ranges.snapshot()) writer.write(range[0] + " " + range[1] + "\n");
+				} finally {
+					writer.close();
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.zmxv.RNSound;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+* On-disk cache of partially or fully downloaded HTTP(S) sounds, bounded by a byte budget that is enforced after every
+* fetched chunk. Whole files are evicted least recently used first, skipping those that are still open.
+* Sources open on the same url share one HttpCacheEntry.
+*/
+class HttpRangeCache {
+
+	static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+	private static final String TAG = "RNSoundHttpRangeCache";
+	private static final String DATA_SUFFIX = ".data";
+	private static final String META_SUFFIX = ".meta";
+
+	private final File dir;
+	private final Map<String, HttpCacheEntry> entries = new HashMap<>();
+	private long maxBytes = DEFAULT_MAX_BYTES;
+
+	HttpRangeCache(final File dir) {
+		this.dir = dir;
+	}
+
+	synchronized CachedHttpDataSource open(final String url) throws IOException {
+		if (!this.dir.isDirectory() && !this.dir.mkdirs()) throw new IOException("Could not create " + this.dir);
+		String name = SoundHashes.sha1Hex(url);
+		HttpCacheEntry entry = this.entries.get(name);
+		if (entry == null) {
+			File dataFile = new File(this.dir, name + DATA_SUFFIX);
+			if (dataFile.exists()) dataFile.setLastModified(System.currentTimeMillis());
+			entry = new HttpCacheEntry(this, name, url, dataFile, new File(this.dir, name + META_SUFFIX));
+			this.entries.put(name, entry);
+		}
+		entry.retain();
+		return new CachedHttpDataSource(this, entry);
+	}
+
+	synchronized void onClosed(final HttpCacheEntry entry) {
+		if (!entry.release()) return;
+		this.entries.remove(entry.name);
+		entry.close();
+	}
+
+	synchronized long getMaxBytes() {
+		return this.maxBytes;
+	}
+
+	synchronized void setMaxBytes(final long maxBytes) {
+		this.maxBytes = Math.max(0, maxBytes);
+		this.trim();
+	}
+
+	synchronized void trim() {
+		File[] files = this.dir.listFiles();
+		if (files == null) return;
+		long total = 0;
+		for (File file : files) {
+			if (file.getName().endsWith(DATA_SUFFIX)) total += file.length();
+		}
+		if (total <= this.maxBytes) return;
+		Arrays.sort(files, new Comparator<File>() {
+			@Override
+			public int compare(File a, File b) {
+				return Long.compare(a.lastModified(), b.lastModified());
+			}
+		});
+		for (File file : files) {
+			if (total <= this.maxBytes) break;
+			String fileName = file.getName();
+			if (!fileName.endsWith(DATA_SUFFIX)) continue;
+			String name = fileName.substring(0, fileName.length() - DATA_SUFFIX.length());
+			if (this.entries.containsKey(name)) continue;
+			long length = file.length();
+			new File(this.dir, name + META_SUFFIX).delete();
+			if (file.delete()) total -= length;
+		}
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Trimmed HTTP cache to " + total + " bytes");
+	}
+
+}
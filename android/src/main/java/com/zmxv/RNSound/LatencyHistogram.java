@@ -0,0 +1,69 @@
+package com.zmxv.RNSound;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+* Millisecond histogram with fixed bucket bounds. Recording only updates counters, so it never allocates.
+*/
+class LatencyHistogram {
+
+	private static final int[] BOUNDS_MS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000 };
+
+	private final long[] counts = new long[BOUNDS_MS.length + 1];
+	private long count = 0;
+	private long sum = 0;
+	private long max = 0;
+
+	synchronized void record(final long ms) {
+		int bucket = 0;
+		while (bucket < BOUNDS_MS.length && ms > BOUNDS_MS[bucket]) bucket++;
+		this.counts[bucket]++;
+		this.count++;
+		this.sum += ms;
+		if (ms > this.max) this.max = ms;
+	}
+
+	synchronized void reset() {
+		for (int i = 0; i < this.counts.length; i++) this.counts[i] = 0;
+		this.count = 0;
+		this.sum = 0;
+		this.max = 0;
+	}
+
+	synchronized WritableMap toMap() {
+		WritableMap map = Arguments.createMap();
+		map.putDouble("count", this.count);
+		map.putDouble("mean", this.count > 0 ? (double) this.sum / this.count : 0);
+		map.putDouble("max", this.max);
+		map.putDouble("p50", this.percentile(0.5));
+		map.putDouble("p90", this.percentile(0.9));
+		map.putDouble("p99", this.percentile(0.99));
+		WritableArray buckets = Arguments.createArray();
+		for (int i = 0; i < this.counts.length; i++) {
+			WritableMap bucket = Arguments.createMap();
+			if (i < BOUNDS_MS.length) bucket.putInt("le", BOUNDS_MS[i]);
+			else bucket.putNull("le");
+			bucket.putDouble("count", this.counts[i]);
+			buckets.pushMap(bucket);
+		}
+		map.putArray("buckets", buckets);
+		return map;
+	}
+
+	/**
+	* Returns the upper bound of the bucket holding the percentile, or the max for the overflow bucket
+	*/
+	private long percentile(final double fraction) {
+		if (this.count == 0) return 0;
+		long target = (long) Math.ceil(this.count * fraction);
+		long seen = 0;
+		for (int i = 0; i < this.counts.length; i++) {
+			seen += this.counts[i];
+			if (seen >= target) return i < BOUNDS_MS.length ? Math.min(BOUNDS_MS[i], this.max) : this.max;
+		}
+		return this.max;
+	}
+
+}
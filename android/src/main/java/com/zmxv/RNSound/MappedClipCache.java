@@ -0,0 +1,129 @@
+package com.zmxv.RNSound;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.MediaDataSource;
+import android.util.Log;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+* Read-only memory mappings of uncompressed assets and raw resources, shared by every player and decoder of a clip.
+* Each open() returns a MediaDataSource holding a reference. The framework closes it when it is done, and the
+* mapping is dropped when the last reference is closed.
+*/
+class MappedClipCache {
+
+	private static final String TAG = "RNSoundMappedClipCache";
+
+	private interface Opener {
+		AssetFileDescriptor open() throws IOException;
+	}
+
+	private static class Clip {
+		final ByteBuffer buffer;
+		int refCount = 0;
+
+		Clip(final ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+	}
+
+	private final Context context;
+	private final Map<String, Clip> clips = new HashMap<>();
+
+	MappedClipCache(final Context context) {
+		this.context = context;
+	}
+
+	MediaDataSource openResource(final int resId) throws IOException {
+		return this.open("raw:" + resId, new Opener() {
+			@Override
+			public AssetFileDescriptor open() throws IOException {
+				return context.getResources().openRawResourceFd(resId);
+			}
+		});
+	}
+
+	MediaDataSource openAsset(final String fileName) throws IOException {
+		return this.open("asset:" + fileName, new Opener() {
+			@Override
+			public AssetFileDescriptor open() throws IOException {
+				return context.getAssets().openFd(fileName);
+			}
+		});
+	}
+
+	private synchronized MediaDataSource open(final String name, final Opener opener) throws IOException {
+		Clip clip = this.clips.get(name);
+		if (clip == null) {
+			clip = new Clip(map(opener));
+			this.clips.put(name, clip);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Mapped " + name + " (" + clip.buffer.capacity() + " bytes)");
+		}
+		clip.refCount++;
+		return new MappedDataSource(name, clip.buffer.duplicate());
+	}
+
+	private synchronized void release(final String name) {
+		Clip clip = this.clips.get(name);
+		if (clip == null || --clip.refCount > 0) return;
+		this.clips.remove(name);
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Released mapping of " + name);
+	}
+
+	/**
+	* Maps the descriptor's range. Throws for compressed entries, which have no descriptor.
+	*/
+	private static ByteBuffer map(final Opener opener) throws IOException {
+		AssetFileDescriptor desc = opener.open();
+		if (desc == null) throw new IOException("Clip is compressed and cannot be mapped");
+		FileInputStream input = desc.createInputStream();
+		try {
+			return input.getChannel().map(FileChannel.MapMode.READ_ONLY, desc.getStartOffset(), desc.getLength());
+		} finally {
+			input.close();
+		}
+	}
+
+	private class MappedDataSource extends MediaDataSource {
+
+		private final String name;
+		private final ByteBuffer view;
+		private boolean closed = false;
+
+		MappedDataSource(final String name, final ByteBuffer view) {
+			this.name = name;
+			this.view = view;
+		}
+
+		@Override
+		public synchronized int readAt(long position, byte[] buffer, int offset, int size) {
+			int capacity = this.view.capacity();
+			if (position >= capacity) return -1;
+			int length = (int) Math.min(size, capacity - position);
+			this.view.position((int) position);
+			this.view.get(buffer, offset, length);
+			return length;
+		}
+
+		@Override
+		public long getSize() {
+			return this.view.capacity();
+		}
+
+		@Override
+		public synchronized void close() {
+			if (this.closed) return;
+			this.closed = true;
+			release(this.name);
+		}
+
+	}
+
+}
@@ -0,0 +1,169 @@
+package com.zmxv.RNSound;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.MediaDataSource;
+import android.media.MediaPlayer;
+import android.media.MediaTimestamp;
+import android.media.VolumeShaper;
+import android.net.Uri;
+
+import java.io.FileDescriptor;
+import java.io.IOException;
+
+/**
+* SoundPlayer backed by android.media.MediaPlayer
+*/
+class MediaPlayerAdapter implements SoundPlayer {
+
+	private final MediaPlayer player = new MediaPlayer();
+
+	@Override
+	public void setListener(final Listener listener) {
+		if (listener == null) {
+			this.player.setOnPreparedListener(null);
+			this.player.setOnCompletionListener(null);
+			this.player.setOnErrorListener(null);
+			return;
+		}
+		this.player.setOnPreparedListener(new MediaPlayer.OnPreparedListener() {
+			@Override
+			public void onPrepared(MediaPlayer mediaPlayer) {
+				listener.onPrepared(MediaPlayerAdapter.this);
+			}
+		});
+		this.player.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
+			@Override
+			public void onCompletion(MediaPlayer mediaPlayer) {
+				listener.onCompletion(MediaPlayerAdapter.this);
+			}
+		});
+		this.player.setOnErrorListener(new MediaPlayer.OnErrorListener() {
+			@Override
+			public boolean onError(MediaPlayer mediaPlayer, int what, int extra) {
+				listener.onError(MediaPlayerAdapter.this, what, extra);
+				return true; //Return true if the error has been handled
+			}
+		});
+	}
+
+	@Override
+	public void setDataSource(final Context context, final Uri uri) throws IOException {
+		this.player.setDataSource(context, uri);
+	}
+
+	@Override
+	public void setDataSource(final FileDescriptor fd, final long offset, final long length) throws IOException {
+		this.player.setDataSource(fd, offset, length);
+	}
+
+	@Override
+	public void setDataSource(final String path) throws IOException {
+		this.player.setDataSource(path);
+	}
+
+	@Override
+	public void setDataSource(final MediaDataSource dataSource) {
+		this.player.setDataSource(dataSource);
+	}
+
+	@Override
+	public void setAudioAttributes(final AudioAttributes attributes) {
+		this.player.setAudioAttributes(attributes);
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public void setAudioStreamType(final int streamType) {
+		this.player.setAudioStreamType(streamType);
+	}
+
+	@Override
+	public void prepareAsync() {
+		this.player.prepareAsync();
+	}
+
+	@Override
+	public void start() {
+		this.player.start();
+	}
+
+	@Override
+	public void pause() {
+		this.player.pause();
+	}
+
+	@Override
+	public void stop() {
+		this.player.stop();
+	}
+
+	@Override
+	public void seekTo(final int ms) {
+		this.player.seekTo(ms);
+	}
+
+	@Override
+	public void reset() {
+		this.player.reset();
+	}
+
+	@Override
+	public void release() {
+		this.player.release();
+	}
+
+	@Override
+	public int getDuration() {
+		return this.player.getDuration();
+	}
+
+	@Override
+	public int getCurrentPosition() {
+		return this.player.getCurrentPosition();
+	}
+
+	@Override
+	public boolean isPlaying() {
+		return this.player.isPlaying();
+	}
+
+	@Override
+	public boolean isLooping() {
+		return this.player.isLooping();
+	}
+
+	@Override
+	public void setLooping(final boolean looping) {
+		this.player.setLooping(looping);
+	}
+
+	@Override
+	public void setVolume(final float left, final float right) {
+		this.player.setVolume(left, right);
+	}
+
+	@Override
+	public void setSpeed(final float speed) {
+		this.player.setPlaybackParams(this.player.getPlaybackParams().setSpeed(speed));
+	}
+
+	/**
+	* Players of another backend cannot be chained, and are treated as null
+	*/
+	@Override
+	public void setNextPlayer(final SoundPlayer next) {
+		this.player.setNextMediaPlayer(next instanceof MediaPlayerAdapter ? ((MediaPlayerAdapter) next).player : null);
+	}
+
+	@Override
+	public VolumeShaper createVolumeShaper(final VolumeShaper.Configuration configuration) {
+		return this.player.createVolumeShaper(configuration);
+	}
+
+	@Override
+	public MediaTimestamp getTimestamp() {
+		return this.player.getTimestamp();
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.zmxv.RNSound;
+
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+* Bounded pool of idle players that are reset and reused by load()
+*/
+class MediaPlayerPool {
+
+	private static final String TAG = "RNSoundPlayerPool";
+	static final int DEFAULT_MIN_SIZE = 2;
+	static final int DEFAULT_MAX_SIZE = 8;
+
+	private final Deque<SoundPlayer> idlePlayers = new ArrayDeque<>();
+	private int minSize = DEFAULT_MIN_SIZE;
+	private int maxSize = DEFAULT_MAX_SIZE;
+	private PlayerBackend backend = PlayerBackend.DEFAULT;
+
+	/**
+	* Switches the backend used for new players. Idle players of the previous backend are released.
+	*/
+	void setBackend(final PlayerBackend backend) {
+		synchronized (this) {
+			this.backend = backend;
+		}
+		this.release();
+		this.prewarm();
+	}
+
+	synchronized void configure(final int minSize, final int maxSize) {
+		this.maxSize = Math.max(0, maxSize);
+		this.minSize = Math.max(0, Math.min(minSize, this.maxSize));
+		while (this.idlePlayers.size() > this.maxSize) this.idlePlayers.pollLast().release();
+		this.prewarm();
+	}
+
+	synchronized void prewarm() {
+		while (this.idlePlayers.size() < this.minSize) this.idlePlayers.push(this.backend.createPlayer());
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Pre-warmed " + this.idlePlayers.size() + " players");
+	}
+
+	synchronized SoundPlayer acquire() {
+		SoundPlayer player = this.idlePlayers.poll();
+		return player != null ? player : this.backend.createPlayer();
+	}
+
+	/**
+	* Resets the player and keeps it for reuse, or releases it when the pool is full
+	*/
+	void recycle(final SoundPlayer player) {
+		player.setListener(null);
+		try {
+			player.reset();
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error resetting player, releasing it instead", e);
+			player.release();
+			return;
+		}
+		synchronized (this) {
+			if (this.idlePlayers.size() < this.maxSize) {
+				this.idlePlayers.push(player);
+				return;
+			}
+		}
+		player.release();
+	}
+
+	synchronized int size() {
+		return this.idlePlayers.size();
+	}
+
+	synchronized void release() {
+		for (SoundPlayer player : this.idlePlayers) {
+			try {
+				player.release();
+			} catch (Exception e) {
+				if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error releasing pooled player", e);
+			}
+		}
+		this.idlePlayers.clear();
+	}
+
+}
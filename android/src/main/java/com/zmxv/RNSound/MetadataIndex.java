@@ -0,0 +1,154 @@
+package com.zmxv.RNSound;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+* Persistent index of the duration and channel count of data sources, so lazy loads resolve without preparing a player.
+* Keys are hashes of the source with its size and modification time, so a changed file misses and data: URIs stay short. The whole index is one small file,
+* read on first use and rewritten shortly after entries change, holding the MAX_ENTRIES most recently used sources.
+*/
+class MetadataIndex {
+
+	private static final String TAG = "RNSoundMetadataIndex";
+	private static final int MAGIC = 0x4d445832;
+	private static final int MAX_ENTRIES = 1024;
+	private static final long SAVE_DELAY_MS = 1000;
+
+	/**
+	* Duration in milliseconds, and channel count or -1 if unknown
+	*/
+	static class Metadata {
+		final int duration;
+		final int channelCount;
+
+		Metadata(final int duration, final int channelCount) {
+			this.duration = duration;
+			this.channelCount = channelCount;
+		}
+	}
+
+	private final File file;
+	private final Map<String, Metadata> entries = new LinkedHashMap<String, Metadata>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Metadata> eldest) {
+			return this.size() > MAX_ENTRIES;
+		}
+	};
+	private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+	private final Runnable saver = new Runnable() {
+		@Override
+		public void run() {
+			save();
+		}
+	};
+	private boolean loaded = false;
+	private boolean saveScheduled = false;
+
+	MetadataIndex(final File file) {
+		this.file = file;
+	}
+
+	synchronized Metadata get(final String key) {
+		this.ensureLoaded();
+		return this.entries.get(key);
+	}
+
+	/**
+	* Records the metadata, keeping a known channel count when the new one is unknown
+	*/
+	synchronized void put(final String key, final int duration, final int channelCount) {
+		this.ensureLoaded();
+		Metadata previous = this.entries.get(key);
+		int channels = channelCount < 0 && previous != null ? previous.channelCount : channelCount;
+		if (previous != null && previous.duration == duration && previous.channelCount == channels) return;
+		this.entries.put(key, new Metadata(duration, channels));
+		if (this.saveScheduled) return;
+		this.saveScheduled = true;
+		this.writer.schedule(this.saver, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	* Writes pending changes right away and stops the writer
+	*/
+	void release() {
+		this.writer.shutdown();
+		synchronized (this) {
+			if (this.saveScheduled) this.save();
+		}
+	}
+
+	private void ensureLoaded() {
+		if (this.loaded) return;
+		this.loaded = true;
+		if (!this.file.exists()) return;
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)));
+			if (in.readInt() != MAGIC) throw new IOException("Unknown index format");
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = in.readUTF();
+				this.entries.put(key, new Metadata(in.readInt(), in.readInt()));
+			}
+		} catch (IOException e) {
+			if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, "Dropping unreadable metadata index", e);
+			this.entries.clear();
+			this.file.delete();
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException ignored) {}
+			}
+		}
+	}
+
+	/**
+	* Writes a temporary file and renames it over the index, so a crash never leaves a partial index behind
+	*/
+	private synchronized void save() {
+		if (!this.saveScheduled) return;
+		this.saveScheduled = false;
+		File parent = this.file.getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs()) return;
+		File temp = new File(this.file.getPath() + ".tmp");
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			out.writeInt(MAGIC);
+			out.writeInt(this.entries.size());
+			for (Map.Entry<String, Metadata> entry : this.entries.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeInt(entry.getValue().duration);
+				out.writeInt(entry.getValue().channelCount);
+			}
+			out.close();
+			out = null;
+			if (!temp.renameTo(this.file)) throw new IOException("Could not replace " + this.file);
+		} catch (IOException e) {
+			if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, "Could not save metadata index", e);
+			temp.delete();
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException ignored) {}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.zmxv.RNSound;
+
+import android.util.Log;
+
+import com.facebook.react.bridge.Callback;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+* A key played as voices of the shared PcmMixer. Every play() starts a new voice unless paused voices can be resumed.
+* Gain, pan and rate apply to all voices of the key and are read by the mixer thread on every buffer.
+*/
+class MixerSound implements PcmSound {
+
+	private static final String TAG = "RNSoundMixerSound";
+	private static final float MIN_RATE = 0.25f;
+	private static final float MAX_RATE = 4f;
+
+	final ShortBuffer samples;
+	final int channelCount;
+	final int sampleRate;
+	final int frameCount;
+	volatile float leftGain = 1f;
+	volatile float rightGain = 1f;
+	volatile float rate = 1f;
+	volatile boolean looping = false;
+	double startFrame = 0;
+
+	private final PcmMixer mixer;
+	private float left = 1f;
+	private float right = 1f;
+	private float pan = 0f;
+	private volatile Callback onComplete;
+
+	MixerSound(final PcmMixer mixer, final PcmData pcm) {
+		this.mixer = mixer;
+		ByteBuffer data = pcm.data.duplicate().order(ByteOrder.nativeOrder());
+		data.rewind();
+		this.samples = data.asShortBuffer();
+		this.channelCount = pcm.channelCount;
+		this.sampleRate = pcm.sampleRate;
+		this.frameCount = pcm.getFrameCount();
+	}
+
+	@Override
+	public void play() {
+		this.mixer.start(this);
+	}
+
+	/**
+	* Voices start at the next mix buffer, so there is nothing to prepare
+	*/
+	@Override
+	public void prime() {}
+
+	/**
+	* Every region plays as its own voice, so regions overlap each other and regular playback
+	*/
+	@Override
+	public boolean playRegion(final int startMs, final int endMs) {
+		int start = (int) Math.min((long) startMs * this.sampleRate / 1000, this.frameCount);
+		int end = (int) Math.min((long) endMs * this.sampleRate / 1000, this.frameCount);
+		this.mixer.startRegion(this, start, end);
+		return true;
+	}
+
+	@Override
+	public void pause() {
+		this.mixer.pause(this);
+	}
+
+	@Override
+	public void stop() {
+		this.mixer.stop(this);
+	}
+
+	@Override
+	public void seekTo(final int ms) {
+		this.mixer.seek(this, Math.min((double) ms * this.sampleRate / 1000, this.frameCount));
+	}
+
+	@Override
+	public int getCurrentMillis() {
+		double frame = this.mixer.getPosition(this);
+		return frame < 0 ? 0 : (int) (frame * 1000 / this.sampleRate);
+	}
+
+	@Override
+	public int getDurationMillis() {
+		return (int) ((long) this.frameCount * 1000 / this.sampleRate);
+	}
+
+	@Override
+	public boolean isPlaying() {
+		return this.mixer.isPlaying(this);
+	}
+
+	@Override
+	public synchronized void setVolume(final float left, final float right) {
+		this.left = left;
+		this.right = right;
+		this.updateGains();
+	}
+
+	@Override
+	public synchronized void setPan(final float pan) {
+		this.pan = Math.max(-1f, Math.min(1f, pan));
+		this.updateGains();
+	}
+
+	@Override
+	public void setLooping(final boolean looping) {
+		this.looping = looping;
+	}
+
+	@Override
+	public void setSpeed(final float speed) {
+		this.rate = Math.max(MIN_RATE, Math.min(MAX_RATE, speed));
+	}
+
+	@Override
+	public void setOnCompletionListener(final Callback callback) {
+		this.onComplete = callback;
+	}
+
+	@Override
+	public void release() {
+		this.onComplete = null;
+		this.mixer.stop(this);
+	}
+
+	/**
+	* Called by the mixer thread, outside of the mix loop, when a non looping voice of this sound reached its end
+	*/
+	void onFinished() {
+		Callback callback = this.onComplete;
+		this.onComplete = null;
+		if (callback == null) return;
+		try {
+			callback.invoke();
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "The on completion callback was already invoked", e);
+		}
+	}
+
+	private void updateGains() {
+		this.leftGain = this.left * Math.min(1f, 1f - this.pan);
+		this.rightGain = this.right * Math.min(1f, 1f + this.pan);
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.zmxv.RNSound;
+
+import android.os.Build;
+import android.util.LruCache;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.Map;
+
+/**
+* LRU cache of decoded PCM keyed by resolved data source, bounded by total bytes
+*/
+class PcmCache {
+
+	static final int DEFAULT_MAX_BYTES = 16 * 1024 * 1024;
+
+	private LruCache<String, PcmData> cache;
+
+	PcmCache(final int maxBytes) {
+		this.cache = createCache(maxBytes);
+	}
+
+	private static LruCache<String, PcmData> createCache(final int maxBytes) {
+		return new LruCache<String, PcmData>(maxBytes) {
+			@Override
+			protected int sizeOf(String key, PcmData value) {
+				return value.getSizeInBytes();
+			}
+		};
+	}
+
+	synchronized PcmData get(final String key) {
+		return this.cache.get(key);
+	}
+
+	synchronized void put(final String key, final PcmData pcm) {
+		if (pcm.getSizeInBytes() > this.cache.maxSize()) return;
+		this.cache.put(key, pcm);
+	}
+
+	/**
+	* LruCache.resize() is API 21. Older versions get a new cache holding the same entries in the same order, so hit and
+	* miss counts restart.
+	*/
+	synchronized void resize(final int maxBytes) {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+			this.cache.resize(maxBytes);
+			return;
+		}
+		LruCache<String, PcmData> previous = this.cache;
+		this.cache = createCache(maxBytes);
+		for (Map.Entry<String, PcmData> entry : previous.snapshot().entrySet()) this.put(entry.getKey(), entry.getValue());
+	}
+
+	/**
+	* LruCache.trimToSize() is public from API 17. Older versions remove the least recently used entries themselves.
+	*/
+	synchronized void shrink() {
+		int target = this.cache.size() / 2;
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+			this.cache.trimToSize(target);
+			return;
+		}
+		for (String key : this.cache.snapshot().keySet()) {
+			if (this.cache.size() <= target) break;
+			this.cache.remove(key);
+		}
+	}
+
+	synchronized void clear() {
+		this.cache.evictAll();
+	}
+
+	synchronized WritableMap getStats() {
+		WritableMap map = Arguments.createMap();
+		map.putInt("hits", this.cache.hitCount());
+		map.putInt("misses", this.cache.missCount());
+		map.putInt("evictions", this.cache.evictionCount());
+		map.putInt("entries", this.cache.snapshot().size());
+		map.putInt("sizeInBytes", this.cache.size());
+		map.putInt("maxSizeInBytes", this.cache.maxSize());
+		return map;
+	}
+
+}
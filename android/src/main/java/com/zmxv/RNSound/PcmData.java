@@ -0,0 +1,38 @@
+package com.zmxv.RNSound;
+
+import java.nio.ByteBuffer;
+
+/**
+* Decoded 16 bit PCM samples stored in a direct ByteBuffer
+*/
+class PcmData {
+
+	static final int BYTES_PER_SAMPLE = 2;
+
+	final ByteBuffer data;
+	final int sampleRate;
+	final int channelCount;
+
+	PcmData(final ByteBuffer data, final int sampleRate, final int channelCount) {
+		this.data = data;
+		this.sampleRate = sampleRate;
+		this.channelCount = channelCount;
+	}
+
+	int getSizeInBytes() {
+		return this.data.limit();
+	}
+
+	int getFrameSize() {
+		return this.channelCount * BYTES_PER_SAMPLE;
+	}
+
+	int getFrameCount() {
+		return this.getSizeInBytes() / this.getFrameSize();
+	}
+
+	int getDuration() {
+		return (int) ((long) this.getFrameCount() * 1000 / this.sampleRate);
+	}
+
+}
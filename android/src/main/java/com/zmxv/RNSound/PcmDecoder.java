@@ -0,0 +1,181 @@
+package com.zmxv.RNSound;
+
+import android.media.AudioFormat;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.os.Build;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+* Decodes the first audio track of a source into 16 bit PCM with MediaExtractor/MediaCodec
+*/
+class PcmDecoder {
+
+	private static final long TIMEOUT_US = 10000;
+	private static final int MIN_CAPACITY = 64 * 1024;
+
+	interface Source {
+		void apply(MediaExtractor extractor) throws Exception;
+	}
+
+	/**
+	* Receives decoded 16 bit PCM chunk by chunk
+	*/
+	interface Sink {
+		void onFormat(int sampleRate, int channelCount, long durationUs) throws Exception;
+		void onSamples(ByteBuffer samples) throws Exception;
+	}
+
+	static PcmData decode(final Source source) throws Exception {
+		Collector collector = new Collector();
+		stream(source, collector);
+		return collector.finish();
+	}
+
+	/**
+	* Decodes in a single pass, handing every output buffer to the sink before it is released, so memory stays constant.
+	* onFormat() is called before the first samples and again if the decoder changes the output format.
+	*/
+	static void stream(final Source source, final Sink sink) throws Exception {
+		MediaExtractor extractor = new MediaExtractor();
+		MediaCodec codec = null;
+		try {
+			source.apply(extractor);
+			int track = selectAudioTrack(extractor);
+			if (track < 0) throw new Exception("No audio track found");
+			extractor.selectTrack(track);
+			MediaFormat format = extractor.getTrackFormat(track);
+			long durationUs = format.containsKey(MediaFormat.KEY_DURATION) ? format.getLong(MediaFormat.KEY_DURATION) : 0;
+			sink.onFormat(format.getInteger(MediaFormat.KEY_SAMPLE_RATE), format.getInteger(MediaFormat.KEY_CHANNEL_COUNT), durationUs);
+
+			codec = MediaCodec.createDecoderByType(format.getString(MediaFormat.KEY_MIME));
+			codec.configure(format, null, null, 0);
+			codec.start();
+
+			MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+			boolean inputDone = false;
+			boolean outputDone = false;
+			while (!outputDone) {
+				if (!inputDone) inputDone = queueInput(extractor, codec);
+				int index = codec.dequeueOutputBuffer(info, TIMEOUT_US);
+				if (index >= 0) {
+					ByteBuffer buffer = getOutputBuffer(codec, index);
+					buffer.position(info.offset);
+					buffer.limit(info.offset + info.size);
+					sink.onSamples(buffer.order(ByteOrder.nativeOrder()));
+					codec.releaseOutputBuffer(index, false);
+					outputDone = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+				} else if (index == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+					MediaFormat outputFormat = codec.getOutputFormat();
+					checkEncoding(outputFormat);
+					sink.onFormat(outputFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE), outputFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT), durationUs);
+				}
+			}
+		} finally {
+			if (codec != null) {
+				try {
+					codec.stop();
+				} catch (Exception ignored) {}
+				codec.release();
+			}
+			extractor.release();
+		}
+	}
+
+	/**
+	* Accumulates the whole stream into one direct buffer sized from the duration
+	*/
+	private static class Collector implements Sink {
+		private ByteBuffer out;
+		private int sampleRate;
+		private int channelCount;
+
+		@Override
+		public void onFormat(int sampleRate, int channelCount, long durationUs) {
+			this.sampleRate = sampleRate;
+			this.channelCount = channelCount;
+			if (this.out != null) return;
+			long estimate = durationUs * sampleRate / 1000000 * channelCount * PcmData.BYTES_PER_SAMPLE;
+			this.out = allocate((int) Math.min(Integer.MAX_VALUE, Math.max(MIN_CAPACITY, estimate)));
+		}
+
+		@Override
+		public void onSamples(ByteBuffer samples) {
+			this.out = ensureCapacity(this.out, samples.remaining());
+			this.out.put(samples);
+		}
+
+		PcmData finish() {
+			this.out.flip();
+			return new PcmData(trim(this.out), this.sampleRate, this.channelCount);
+		}
+	}
+
+	static int selectAudioTrack(final MediaExtractor extractor) {
+		for (int i = 0; i < extractor.getTrackCount(); i++) {
+			String mime = extractor.getTrackFormat(i).getString(MediaFormat.KEY_MIME);
+			if (mime != null && mime.startsWith("audio/")) return i;
+		}
+		return -1;
+	}
+
+	private static boolean queueInput(final MediaExtractor extractor, final MediaCodec codec) {
+		int index = codec.dequeueInputBuffer(TIMEOUT_US);
+		if (index < 0) return false;
+		ByteBuffer buffer = getInputBuffer(codec, index);
+		int size = extractor.readSampleData(buffer, 0);
+		if (size < 0) {
+			codec.queueInputBuffer(index, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+			return true;
+		}
+		codec.queueInputBuffer(index, 0, size, extractor.getSampleTime(), 0);
+		extractor.advance();
+		return false;
+	}
+
+	private static void checkEncoding(final MediaFormat format) throws Exception {
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N || !format.containsKey(MediaFormat.KEY_PCM_ENCODING)) return;
+		if (format.getInteger(MediaFormat.KEY_PCM_ENCODING) != AudioFormat.ENCODING_PCM_16BIT) {
+			throw new Exception("Unsupported PCM encoding: " + format.getInteger(MediaFormat.KEY_PCM_ENCODING));
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private static ByteBuffer getInputBuffer(final MediaCodec codec, final int index) {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) return codec.getInputBuffer(index);
+		return codec.getInputBuffers()[index];
+	}
+
+	@SuppressWarnings("deprecation")
+	private static ByteBuffer getOutputBuffer(final MediaCodec codec, final int index) {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) return codec.getOutputBuffer(index);
+		return codec.getOutputBuffers()[index];
+	}
+
+	private static ByteBuffer allocate(final int capacity) {
+		return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+	}
+
+	private static ByteBuffer trim(final ByteBuffer buffer) {
+		if (buffer.capacity() - buffer.limit() <= buffer.limit() / 8) return buffer;
+		ByteBuffer trimmed = allocate(buffer.limit());
+		trimmed.put(buffer);
+		trimmed.flip();
+		return trimmed;
+	}
+
+	private static ByteBuffer ensureCapacity(final ByteBuffer buffer, final int extra) {
+		if (buffer.remaining() >= extra) return buffer;
+		long needed = (long) buffer.position() + extra;
+		long capacity = Math.max(needed, (long) buffer.capacity() * 2);
+		if (capacity > Integer.MAX_VALUE) capacity = needed;
+		ByteBuffer grown = allocate((int) capacity);
+		buffer.flip();
+		grown.put(buffer);
+		return grown;
+	}
+
+}
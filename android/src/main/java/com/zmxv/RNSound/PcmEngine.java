@@ -0,0 +1,240 @@
+package com.zmxv.RNSound;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.MediaExtractor;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+* Engine for keys loaded with { engine: "pcm" } or { engine: "mixer" }: decodes once into a shared PcmCache and
+* plays through an AudioTrack per key, or through the shared PcmMixer
+*/
+class PcmEngine {
+
+	private static final String TAG = "RNSoundPcmEngine";
+
+	private final Context context;
+	private final MappedClipCache mappedClips;
+	private final PcmCache cache = new PcmCache(PcmCache.DEFAULT_MAX_BYTES);
+	private final ExecutorService decoder = Executors.newSingleThreadExecutor();
+	private final SparseArray<PcmSound> players = new SparseArray<>();
+	private final SparseIntArray loads = new SparseIntArray();
+	private int lastLoad = 0;
+	private boolean released = false;
+	private PcmMixer mixer;
+	private int mixerMaxVoices = PcmMixer.DEFAULT_MAX_VOICES;
+
+	PcmEngine(final Context context, final MappedClipCache mappedClips) {
+		this.context = context;
+		this.mappedClips = mappedClips;
+	}
+
+	synchronized PcmSound getPlayer(final int key) {
+		return this.players.get(key);
+	}
+
+	void loadResource(final int key, final int resId, final Object audioAttributes, final int streamType, final boolean mixed, final Promise promise) {
+		this.load(key, "raw:" + resId, this.resourceSource(resId), audioAttributes, streamType, mixed, promise);
+	}
+
+	void loadAsset(final int key, final String fileName, final Object audioAttributes, final int streamType, final boolean mixed, final Promise promise) {
+		this.load(key, "asset:" + fileName, this.assetSource(fileName), audioAttributes, streamType, mixed, promise);
+	}
+
+	void loadUri(final int key, final String dataSource, final Object audioAttributes, final int streamType, final boolean mixed, final Promise promise) {
+		this.load(key, dataSource, this.uriSource(dataSource), audioAttributes, streamType, mixed, promise);
+	}
+
+	/**
+	* Files are cached by size and modification time too, so a file rewritten at the same path is decoded again
+	*/
+	void loadFile(final int key, final String path, final Object audioAttributes, final int streamType, final boolean mixed, final Promise promise) {
+		File file = new File(path);
+		this.load(key, "file:" + path + "|" + file.length() + "|" + file.lastModified(), this.fileSource(path), audioAttributes, streamType, mixed, promise);
+	}
+
+	PcmDecoder.Source resourceSource(final int resId) {
+		return new PcmDecoder.Source() {
+			@Override
+			public void apply(MediaExtractor extractor) throws Exception {
+				if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+					extractor.setDataSource(mappedClips.openResource(resId));
+					return;
+				}
+				AssetFileDescriptor desc = context.getResources().openRawResourceFd(resId);
+				try {
+					extractor.setDataSource(desc.getFileDescriptor(), desc.getStartOffset(), desc.getLength());
+				} finally {
+					desc.close();
+				}
+			}
+		};
+	}
+
+	PcmDecoder.Source assetSource(final String fileName) {
+		return new PcmDecoder.Source() {
+			@Override
+			public void apply(MediaExtractor extractor) throws Exception {
+				if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+					extractor.setDataSource(mappedClips.openAsset(fileName));
+					return;
+				}
+				AssetFileDescriptor desc = context.getAssets().openFd(fileName);
+				try {
+					extractor.setDataSource(desc.getFileDescriptor(), desc.getStartOffset(), desc.getLength());
+				} finally {
+					desc.close();
+				}
+			}
+		};
+	}
+
+	PcmDecoder.Source uriSource(final String dataSource) {
+		return new PcmDecoder.Source() {
+			@Override
+			public void apply(MediaExtractor extractor) throws Exception {
+				extractor.setDataSource(context, Uri.parse(dataSource), null);
+			}
+		};
+	}
+
+	PcmDecoder.Source fileSource(final String path) {
+		return new PcmDecoder.Source() {
+			@Override
+			public void apply(MediaExtractor extractor) throws Exception {
+				extractor.setDataSource(path);
+			}
+		};
+	}
+
+	/**
+	* Decodes on the decoder thread. Each load gets a token, and its player is only registered if the token is still the
+	* latest for the key, so an unload or a newer load of the key while decoding wins.
+	*/
+	private void load(final int key, final String cacheKey, final PcmDecoder.Source source, final Object audioAttributes, final int streamType, final boolean mixed, final Promise promise) {
+		final int token;
+		synchronized (this) {
+			token = ++this.lastLoad;
+			this.loads.put(key, token);
+		}
+		this.decoder.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					PcmData pcm = cache.get(cacheKey);
+					if (pcm == null) {
+						pcm = PcmDecoder.decode(source);
+						cache.put(cacheKey, pcm);
+						if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Decoded " + pcm.getSizeInBytes() + " bytes of PCM");
+					}
+					PcmSound player = mixed ? getMixer(audioAttributes, streamType).createSound(pcm) : new PcmPlayer(pcm, audioAttributes, streamType);
+					PcmSound previous;
+					boolean current;
+					synchronized (PcmEngine.this) {
+						current = !released && loads.get(key) == token;
+						previous = current ? players.get(key) : null;
+						if (current) players.put(key, player);
+					}
+					if (!current) {
+						player.release();
+						promise.reject("E_UNLOADED", "Key " + key + " was unloaded or reloaded while decoding");
+						return;
+					}
+					if (previous != null) previous.release();
+					WritableMap map = Arguments.createMap();
+					map.putInt("duration", pcm.getDuration());
+					map.putInt("numberOfChannels", pcm.channelCount);
+					promise.resolve(map);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, key + " - Error decoding PCM", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
+	/**
+	* Returns the shared mixer, created with the audio attributes of the first key loaded into it
+	*/
+	private synchronized PcmMixer getMixer(final Object audioAttributes, final int streamType) {
+		if (this.mixer == null) {
+			this.mixer = new PcmMixer(audioAttributes, streamType);
+			this.mixer.setMaxVoices(this.mixerMaxVoices);
+		}
+		return this.mixer;
+	}
+
+	synchronized void setMixerMaxVoices(final int maxVoices) {
+		this.mixerMaxVoices = maxVoices;
+		if (this.mixer != null) this.mixer.setMaxVoices(maxVoices);
+	}
+
+	synchronized WritableMap getMixerStats() {
+		return this.mixer != null ? this.mixer.getStats() : null;
+	}
+
+	void unload(final int key) {
+		PcmSound player;
+		synchronized (this) {
+			player = this.players.get(key);
+			this.players.remove(key);
+			this.loads.delete(key);
+		}
+		if (player != null) player.release();
+	}
+
+	void setMaxBytes(final int maxBytes) {
+		this.cache.resize(maxBytes);
+	}
+
+	WritableMap getStats() {
+		return this.cache.getStats();
+	}
+
+	/**
+	* Drops the least recently used half of the decoded PCM cache, or all of it when critical
+	*/
+	void trimMemory(final boolean critical) {
+		if (critical) this.cache.clear();
+		else this.cache.shrink();
+	}
+
+	void release() {
+		this.decoder.shutdownNow();
+		List<PcmSound> releasedPlayers;
+		PcmMixer releasedMixer;
+		synchronized (this) {
+			this.released = true;
+			this.loads.clear();
+			releasedPlayers = new ArrayList<>(this.players.size());
+			for (int i = 0; i < this.players.size(); i++) releasedPlayers.add(this.players.valueAt(i));
+			this.players.clear();
+			releasedMixer = this.mixer;
+			this.mixer = null;
+		}
+		for (PcmSound player : releasedPlayers) {
+			try {
+				player.release();
+			} catch (Exception e) {
+				if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error releasing PCM player", e);
+			}
+		}
+		if (releasedMixer != null) releasedMixer.release();
+		this.cache.clear();
+	}
+
+}
@@ -0,0 +1,348 @@
+package com.zmxv.RNSound;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTrack;
+import android.os.Build;
+import android.os.Process;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+* Software mixer for keys loaded with { engine: "mixer" }. One urgent audio thread mixes every active voice into a
+* single stereo AudioTrack. Voices and buffers are allocated up front so the mix loop does not allocate.
+* When all voices are busy, the oldest one is stolen.
+*/
+class PcmMixer {
+
+	static final int DEFAULT_MAX_VOICES = 32;
+	static final int VOICE_CAPACITY = 64;
+	private static final String TAG = "RNSoundPcmMixer";
+	private static final int FRAMES_PER_BUFFER = 256;
+	private static final int OUTPUT_CHANNELS = 2;
+
+	private static class Voice {
+		MixerSound sound;
+		double position;
+		int endFrame = -1;
+		boolean active;
+		boolean paused;
+		long sequence;
+	}
+
+	private final AudioTrack track;
+	private final int sampleRate;
+	private final Voice[] voices = new Voice[VOICE_CAPACITY];
+	private final MixerSound[] finished = new MixerSound[VOICE_CAPACITY];
+	private final float[] mix = new float[FRAMES_PER_BUFFER * OUTPUT_CHANNELS];
+	private final short[] output = new short[FRAMES_PER_BUFFER * OUTPUT_CHANNELS];
+	private int maxVoices = DEFAULT_MAX_VOICES;
+	private long sequence = 0;
+	private Thread thread;
+	private volatile boolean released = false;
+	private boolean trackPlaying = false;
+	private long buffers = 0;
+	private long totalMixNanos = 0;
+	private long maxMixNanos = 0;
+	private int steals = 0;
+
+	PcmMixer(final Object audioAttributes, final int streamType) {
+		for (int i = 0; i < VOICE_CAPACITY; i++) this.voices[i] = new Voice();
+		this.sampleRate = AudioTrack.getNativeOutputSampleRate(streamType);
+		int channelMask = AudioFormat.CHANNEL_OUT_STEREO;
+		int bufferSize = Math.max(
+			AudioTrack.getMinBufferSize(this.sampleRate, channelMask, AudioFormat.ENCODING_PCM_16BIT),
+			this.output.length * PcmData.BYTES_PER_SAMPLE * 2
+		);
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+			this.track = new AudioTrack(streamType, this.sampleRate, channelMask, AudioFormat.ENCODING_PCM_16BIT, bufferSize, AudioTrack.MODE_STREAM);
+		} else {
+			AudioFormat format = new AudioFormat.Builder()
+				.setSampleRate(this.sampleRate)
+				.setChannelMask(channelMask)
+				.setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+				.build();
+			this.track = new AudioTrack((AudioAttributes) audioAttributes, format, bufferSize, AudioTrack.MODE_STREAM, 0);
+		}
+	}
+
+	MixerSound createSound(final PcmData pcm) {
+		return new MixerSound(this, pcm);
+	}
+
+	synchronized void setMaxVoices(final int maxVoices) {
+		this.maxVoices = Math.max(1, Math.min(VOICE_CAPACITY, maxVoices));
+		for (int i = this.maxVoices; i < VOICE_CAPACITY; i++) this.clear(this.voices[i]);
+	}
+
+	/**
+	* Resumes the paused voices of the sound, or starts a new voice if none is paused
+	*/
+	synchronized void start(final MixerSound sound) {
+		boolean resumed = false;
+		for (int i = 0; i < this.maxVoices; i++) {
+			Voice voice = this.voices[i];
+			if (voice.active && voice.sound == sound && voice.paused) {
+				voice.paused = false;
+				resumed = true;
+			}
+		}
+		if (!resumed) {
+			Voice voice = this.obtainVoice();
+			voice.sound = sound;
+			voice.position = sound.startFrame;
+			voice.endFrame = -1;
+			voice.active = true;
+			voice.paused = false;
+			voice.sequence = ++this.sequence;
+			sound.startFrame = 0;
+		}
+		if (this.thread == null && !this.released) this.startThread();
+		this.notifyAll();
+	}
+
+	/**
+	* Starts a new voice that plays frames [startFrame, endFrame) of the sound once and is cut off sample exactly.
+	* Region voices do not loop and do not fire the completion callback of the sound.
+	*/
+	synchronized void startRegion(final MixerSound sound, final int startFrame, final int endFrame) {
+		Voice voice = this.obtainVoice();
+		voice.sound = sound;
+		voice.position = startFrame;
+		voice.endFrame = endFrame;
+		voice.active = true;
+		voice.paused = false;
+		voice.sequence = ++this.sequence;
+		if (this.thread == null && !this.released) this.startThread();
+		this.notifyAll();
+	}
+
+	synchronized void pause(final MixerSound sound) {
+		for (int i = 0; i < this.maxVoices; i++) {
+			Voice voice = this.voices[i];
+			if (voice.active && voice.sound == sound) voice.paused = true;
+		}
+	}
+
+	synchronized void stop(final MixerSound sound) {
+		for (int i = 0; i < this.maxVoices; i++) {
+			if (this.voices[i].sound == sound) this.clear(this.voices[i]);
+		}
+		sound.startFrame = 0;
+	}
+
+	/**
+	* Moves the newest voice of the sound, or the start of its next voice if none is active
+	*/
+	synchronized void seek(final MixerSound sound, final double frame) {
+		Voice voice = this.newestVoice(sound);
+		if (voice != null) voice.position = frame;
+		else sound.startFrame = frame;
+	}
+
+	synchronized double getPosition(final MixerSound sound) {
+		Voice voice = this.newestVoice(sound);
+		return voice != null ? voice.position : sound.startFrame;
+	}
+
+	synchronized boolean isPlaying(final MixerSound sound) {
+		for (int i = 0; i < this.maxVoices; i++) {
+			Voice voice = this.voices[i];
+			if (voice.active && !voice.paused && voice.sound == sound) return true;
+		}
+		return false;
+	}
+
+	synchronized WritableMap getStats() {
+		int active = 0;
+		for (int i = 0; i < this.maxVoices; i++) {
+			if (this.voices[i].active) active++;
+		}
+		double bufferMicros = FRAMES_PER_BUFFER * 1000000.0 / this.sampleRate;
+		double averageMixMicros = this.buffers > 0 ? this.totalMixNanos / 1000.0 / this.buffers : 0;
+		WritableMap map = Arguments.createMap();
+		map.putInt("activeVoices", active);
+		map.putInt("maxVoices", this.maxVoices);
+		map.putInt("steals", this.steals);
+		map.putDouble("buffers", this.buffers);
+		map.putInt("sampleRate", this.sampleRate);
+		map.putDouble("bufferMicros", bufferMicros);
+		map.putDouble("averageMixMicros", averageMixMicros);
+		map.putDouble("maxMixMicros", this.maxMixNanos / 1000.0);
+		map.putDouble("cpuLoad", averageMixMicros / bufferMicros);
+		return map;
+	}
+
+	/**
+	* Stops mixing. A running mix thread finishes its current write, then stops and releases the track itself, so the
+	* track is never released underneath it.
+	*/
+	void release() {
+		synchronized (this) {
+			if (this.released) return;
+			this.released = true;
+			this.notifyAll();
+			if (this.thread != null) return;
+		}
+		this.track.release();
+	}
+
+	private void startThread() {
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+				mixLoop();
+			}
+		}, TAG);
+		this.thread.start();
+	}
+
+	private Voice obtainVoice() {
+		Voice oldest = null;
+		for (int i = 0; i < this.maxVoices; i++) {
+			Voice voice = this.voices[i];
+			if (!voice.active) return voice;
+			if (oldest == null || voice.sequence < oldest.sequence) oldest = voice;
+		}
+		this.steals++;
+		return oldest;
+	}
+
+	private Voice newestVoice(final MixerSound sound) {
+		Voice newest = null;
+		for (int i = 0; i < this.maxVoices; i++) {
+			Voice voice = this.voices[i];
+			if (voice.active && voice.sound == sound && (newest == null || voice.sequence > newest.sequence)) newest = voice;
+		}
+		return newest;
+	}
+
+	private void clear(final Voice voice) {
+		voice.active = false;
+		voice.paused = false;
+		voice.sound = null;
+	}
+
+	private boolean hasPlayingVoices() {
+		for (int i = 0; i < this.maxVoices; i++) {
+			if (this.voices[i].active && !this.voices[i].paused) return true;
+		}
+		return false;
+	}
+
+	private void mixLoop() {
+		try {
+			while (true) {
+				int finishedCount;
+				synchronized (this) {
+					while (!this.released && !this.hasPlayingVoices()) {
+						if (this.trackPlaying) {
+							this.track.pause();
+							this.trackPlaying = false;
+						}
+						this.wait();
+					}
+					if (this.released) break;
+					if (!this.trackPlaying) {
+						this.track.play();
+						this.trackPlaying = true;
+					}
+					long begin = System.nanoTime();
+					finishedCount = this.mixVoices();
+					long elapsed = System.nanoTime() - begin;
+					this.buffers++;
+					this.totalMixNanos += elapsed;
+					if (elapsed > this.maxMixNanos) this.maxMixNanos = elapsed;
+				}
+				for (int i = 0; i < finishedCount; i++) {
+					this.finished[i].onFinished();
+					this.finished[i] = null;
+				}
+				int written = this.track.write(this.output, 0, this.output.length);
+				if (written < 0) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "AudioTrack write failed with " + written);
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Mix thread interrupted");
+		}
+		boolean releaseTrack;
+		synchronized (this) {
+			if (this.trackPlaying) this.track.stop();
+			this.trackPlaying = false;
+			this.thread = null;
+			releaseTrack = this.released;
+		}
+		if (releaseTrack) this.track.release();
+	}
+
+	/**
+	* Mixes one buffer of every playing voice into the output. Returns how many sounds finished, stored in finished.
+	*/
+	private int mixVoices() {
+		Arrays.fill(this.mix, 0f);
+		int finishedCount = 0;
+		for (int i = 0; i < this.maxVoices; i++) {
+			Voice voice = this.voices[i];
+			if (!voice.active || voice.paused) continue;
+			if (!this.mixVoice(voice)) {
+				if (voice.endFrame < 0) this.finished[finishedCount++] = voice.sound;
+				this.clear(voice);
+			}
+		}
+		for (int i = 0; i < this.mix.length; i++) {
+			float sample = this.mix[i];
+			if (sample > Short.MAX_VALUE) sample = Short.MAX_VALUE;
+			else if (sample < Short.MIN_VALUE) sample = Short.MIN_VALUE;
+			this.output[i] = (short) sample;
+		}
+		return finishedCount;
+	}
+
+	/**
+	* Adds one buffer of the voice with linear interpolation. Returns false once a non looping voice reached its end.
+	*/
+	private boolean mixVoice(final Voice voice) {
+		MixerSound sound = voice.sound;
+		ShortBuffer samples = sound.samples;
+		int frames = voice.endFrame < 0 ? sound.frameCount : Math.min(voice.endFrame, sound.frameCount);
+		int channels = sound.channelCount;
+		if (frames == 0) return false;
+		boolean looping = voice.endFrame < 0 && sound.looping;
+		float leftGain = sound.leftGain;
+		float rightGain = sound.rightGain;
+		double step = (double) sound.rate * sound.sampleRate / this.sampleRate;
+		double position = voice.position;
+		for (int i = 0; i < FRAMES_PER_BUFFER; i++) {
+			if (position >= frames) {
+				if (!looping) return false;
+				position %= frames;
+			}
+			int frame = (int) position;
+			float fraction = (float) (position - frame);
+			int next = frame + 1 < frames ? frame + 1 : (looping ? 0 : frame);
+			int index = frame * channels;
+			int nextIndex = next * channels;
+			float a = samples.get(index);
+			float left = a + (samples.get(nextIndex) - a) * fraction;
+			float right = left;
+			if (channels > 1) {
+				a = samples.get(index + 1);
+				right = a + (samples.get(nextIndex + 1) - a) * fraction;
+			}
+			this.mix[i * OUTPUT_CHANNELS] += left * leftGain;
+			this.mix[i * OUTPUT_CHANNELS + 1] += right * rightGain;
+			position += step;
+		}
+		voice.position = position;
+		return true;
+	}
+
+}
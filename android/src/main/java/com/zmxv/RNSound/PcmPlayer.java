@@ -0,0 +1,339 @@
+package com.zmxv.RNSound;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTrack;
+import android.media.AudioTrack.OnPlaybackPositionUpdateListener;
+import android.os.Build;
+import android.util.Log;
+
+import com.facebook.react.bridge.Callback;
+
+import java.nio.ByteBuffer;
+
+/**
+* Plays cached PCM through an AudioTrack, in static mode for short clips and stream mode otherwise
+*/
+class PcmPlayer implements PcmSound {
+
+	private static final String TAG = "RNSoundPcmPlayer";
+	private static final int STATIC_MAX_BYTES = 1024 * 1024;
+	private static final int STREAM_CHUNK_BYTES = 16 * 1024;
+
+	private final PcmData pcm;
+	private final AudioTrack track;
+	private final boolean streaming;
+	private final Object lock = new Object();
+	private Thread writer;
+	private volatile boolean looping = false;
+	private volatile boolean released = false;
+	private boolean writing = false;
+	private boolean writerRunning = false;
+	private boolean writeInFlight = false;
+	private boolean flushPending = false;
+	private boolean startPending = false;
+	private int readPosition = 0;
+	private int startFrame = 0;
+	private volatile Callback onComplete;
+	private float left = 1f;
+	private float right = 1f;
+	private float pan = 0f;
+
+	PcmPlayer(final PcmData pcm, final Object audioAttributes, final int streamType) {
+		this.pcm = pcm;
+		this.streaming = pcm.getSizeInBytes() > STATIC_MAX_BYTES;
+		int channelMask = pcm.channelCount == 1 ? AudioFormat.CHANNEL_OUT_MONO : AudioFormat.CHANNEL_OUT_STEREO;
+		int mode = this.streaming ? AudioTrack.MODE_STREAM : AudioTrack.MODE_STATIC;
+		int bufferSize = this.streaming
+			? Math.max(AudioTrack.getMinBufferSize(pcm.sampleRate, channelMask, AudioFormat.ENCODING_PCM_16BIT), STREAM_CHUNK_BYTES)
+			: pcm.getSizeInBytes();
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+			this.track = new AudioTrack(streamType, pcm.sampleRate, channelMask, AudioFormat.ENCODING_PCM_16BIT, bufferSize, mode);
+		} else {
+			AudioFormat format = new AudioFormat.Builder()
+				.setSampleRate(pcm.sampleRate)
+				.setChannelMask(channelMask)
+				.setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+				.build();
+			this.track = new AudioTrack((AudioAttributes) audioAttributes, format, bufferSize, mode, 0);
+		}
+		if (this.streaming) {
+			this.writerRunning = true;
+			this.writer = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						writeLoop();
+					} finally {
+						onWriterExit();
+					}
+				}
+			}, TAG);
+			this.writer.start();
+		} else {
+			this.writeStatic();
+			this.track.setNotificationMarkerPosition(pcm.getFrameCount());
+		}
+		this.track.setPlaybackPositionUpdateListener(this.createPositionListener());
+	}
+
+	private void writeStatic() {
+		ByteBuffer source = this.pcm.data.duplicate();
+		source.rewind();
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+			this.track.write(source, source.remaining(), AudioTrack.WRITE_BLOCKING);
+		} else {
+			byte[] bytes = new byte[source.remaining()];
+			source.get(bytes);
+			this.track.write(bytes, 0, bytes.length);
+		}
+	}
+
+	private void writeLoop() {
+		ByteBuffer source = this.pcm.data.duplicate();
+		byte[] chunk = new byte[STREAM_CHUNK_BYTES];
+		int size = this.pcm.getSizeInBytes();
+		while (!this.released) {
+			int position;
+			synchronized (this.lock) {
+				while (!this.writing && !this.released) {
+					try {
+						this.lock.wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (this.released) return;
+				if (this.readPosition >= size) {
+					if (!this.looping) {
+						this.writing = false;
+						int written = size / this.pcm.getFrameSize() - this.startFrame;
+						this.track.setNotificationMarkerPosition(Math.max(1, written));
+						continue;
+					}
+					this.readPosition = 0;
+				}
+				position = this.readPosition;
+				this.writeInFlight = true;
+			}
+			int length = Math.min(STREAM_CHUNK_BYTES, size - position);
+			source.limit(position + length);
+			source.position(position);
+			source.get(chunk, 0, length);
+			int written = this.track.write(chunk, 0, length);
+			synchronized (this.lock) {
+				this.writeInFlight = false;
+				if (this.flushPending) {
+					// A seek flushed the track while this chunk of the old position was being written
+					this.flushPending = false;
+					if (!this.released) this.track.flush();
+					if (this.startPending && !this.released) this.track.play();
+					this.startPending = false;
+				} else if (written > 0) {
+					this.readPosition = position + written;
+				}
+			}
+			if (written < 0) {
+				if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "AudioTrack write failed with " + written);
+				return;
+			}
+		}
+	}
+
+	/**
+	* Releases the track if release() was called while the writer was still running
+	*/
+	private void onWriterExit() {
+		boolean releaseTrack;
+		synchronized (this.lock) {
+			this.writerRunning = false;
+			releaseTrack = this.released;
+		}
+		if (releaseTrack) this.track.release();
+	}
+
+	private OnPlaybackPositionUpdateListener createPositionListener() {
+		return new OnPlaybackPositionUpdateListener() {
+			@Override
+			public void onMarkerReached(AudioTrack audioTrack) {
+				if (looping && !streaming) {
+					restartStatic();
+					return;
+				}
+				if (looping) return;
+				Callback callback = onComplete;
+				onComplete = null;
+				if (callback == null) return;
+				try {
+					callback.invoke();
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "The on completion callback was already invoked", e);
+				}
+			}
+
+			@Override
+			public void onPeriodicNotification(AudioTrack audioTrack) {}
+		};
+	}
+
+	private void restartStatic() {
+		this.track.pause();
+		this.track.setPlaybackHeadPosition(0);
+		this.track.play();
+	}
+
+	@Override
+	public void setOnCompletionListener(final Callback callback) {
+		this.onComplete = callback;
+	}
+
+	@Override
+	public boolean isPlaying() {
+		return this.track.getPlayState() == AudioTrack.PLAYSTATE_PLAYING && !this.isAtEnd();
+	}
+
+	private boolean isAtEnd() {
+		if (this.streaming) return !this.writing && this.track.getPlaybackHeadPosition() + this.startFrame >= this.pcm.getFrameCount();
+		return this.track.getPlaybackHeadPosition() >= this.pcm.getFrameCount();
+	}
+
+	@Override
+	public void play() {
+		if (this.isPlaying()) return;
+		if (this.isAtEnd()) {
+			this.track.pause();
+			this.seekToFrame(0);
+		}
+		if (this.streaming) {
+			synchronized (this.lock) {
+				this.writing = true;
+				this.lock.notifyAll();
+				// Started by the writer once the stale chunk of an earlier position is flushed
+				if (this.flushPending) {
+					this.startPending = true;
+					return;
+				}
+			}
+		}
+		this.track.play();
+	}
+
+	/**
+	* Lets the writer fill the paused stream track, so play() starts from a full buffer
+	*/
+	@Override
+	public void prime() {
+		if (!this.streaming || this.isPlaying()) return;
+		if (this.isAtEnd()) this.seekToFrame(0);
+		synchronized (this.lock) {
+			this.writing = true;
+			this.lock.notifyAll();
+		}
+	}
+
+	@Override
+	public boolean playRegion(final int startMs, final int endMs) {
+		return false;
+	}
+
+	@Override
+	public void pause() {
+		synchronized (this.lock) {
+			this.startPending = false;
+		}
+		this.track.pause();
+	}
+
+	@Override
+	public void stop() {
+		this.track.pause();
+		this.seekToFrame(0);
+	}
+
+	@Override
+	public void seekTo(final int ms) {
+		boolean wasPlaying = this.isPlaying();
+		this.track.pause();
+		int frame = (int) Math.min((long) ms * this.pcm.sampleRate / 1000, this.pcm.getFrameCount());
+		this.seekToFrame(frame);
+		if (wasPlaying) this.play();
+	}
+
+	private void seekToFrame(final int frame) {
+		if (!this.streaming) {
+			this.track.setPlaybackHeadPosition(frame);
+			return;
+		}
+		synchronized (this.lock) {
+			this.track.flush();
+			if (this.writeInFlight) this.flushPending = true;
+			this.startFrame = frame;
+			this.readPosition = frame * this.pcm.getFrameSize();
+			this.track.setNotificationMarkerPosition(0);
+		}
+	}
+
+	@Override
+	public int getDurationMillis() {
+		return this.pcm.getDuration();
+	}
+
+	@Override
+	public int getCurrentMillis() {
+		long frame = this.track.getPlaybackHeadPosition() + (long) this.startFrame;
+		if (this.looping) frame %= this.pcm.getFrameCount();
+		else frame = Math.min(frame, this.pcm.getFrameCount());
+		return (int) (frame * 1000 / this.pcm.sampleRate);
+	}
+
+	@Override
+	public synchronized void setVolume(final float left, final float right) {
+		this.left = left;
+		this.right = right;
+		this.applyVolume();
+	}
+
+	@Override
+	public synchronized void setPan(final float pan) {
+		this.pan = Math.max(-1f, Math.min(1f, pan));
+		this.applyVolume();
+	}
+
+	@SuppressWarnings("deprecation")
+	private void applyVolume() {
+		this.track.setStereoVolume(this.left * Math.min(1f, 1f - this.pan), this.right * Math.min(1f, 1f + this.pan));
+	}
+
+	@Override
+	public void setLooping(final boolean looping) {
+		this.looping = looping;
+	}
+
+	@Override
+	public void setSpeed(final float speed) {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+			this.track.setPlaybackParams(this.track.getPlaybackParams().setSpeed(speed));
+		} else {
+			this.track.setPlaybackRate(Math.round(this.pcm.sampleRate * speed));
+		}
+	}
+
+	/**
+	* Stops the track, which also ends a blocked write. A running writer releases the track itself once it exits, so the
+	* track is never released underneath a write.
+	*/
+	@Override
+	public void release() {
+		boolean releaseTrack;
+		synchronized (this.lock) {
+			if (this.released) return;
+			this.track.setPlaybackPositionUpdateListener(null);
+			this.track.stop();
+			this.released = true;
+			this.lock.notifyAll();
+			releaseTrack = !this.writerRunning;
+		}
+		if (releaseTrack) this.track.release();
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.zmxv.RNSound;
+
+import com.facebook.react.bridge.Callback;
+
+/**
+* A key loaded by the PcmEngine, played either through its own AudioTrack or as voices of the shared PcmMixer
+*/
+interface PcmSound {
+
+	void play();
+
+	/**
+	* Gets ready for a play() that must start right away, such as filling the output buffer
+	*/
+	void prime();
+
+	/**
+	* Plays [startMs, endMs) and stops there by itself. Returns false if it cannot, so the caller watches the position instead.
+	*/
+	boolean playRegion(int startMs, int endMs);
+
+	void pause();
+
+	void stop();
+
+	void seekTo(int ms);
+
+	int getCurrentMillis();
+
+	int getDurationMillis();
+
+	boolean isPlaying();
+
+	void setVolume(float left, float right);
+
+	void setPan(float pan);
+
+	void setLooping(boolean looping);
+
+	void setSpeed(float speed);
+
+	void setOnCompletionListener(Callback callback);
+
+	void release();
+
+}
@@ -0,0 +1,103 @@
+package com.zmxv.RNSound;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+* On-disk cache of waveform peaks, keyed by source, its modification time and the bucket count, so a changed file is
+* decoded again. The least recently used entries are dropped beyond MAX_ENTRIES.
+*/
+class PeakCache {
+
+	private static final String TAG = "RNSoundPeakCache";
+	private static final String SUFFIX = ".peaks";
+	private static final int MAGIC = 0x504b5332;
+	private static final int MAX_ENTRIES = 256;
+
+	private final File dir;
+
+	PeakCache(final File dir) {
+		this.dir = dir;
+	}
+
+	synchronized PeakExtractor.Peaks get(final String source, final long modifiedAt, final int bucketCount) {
+		File file = this.getFile(source, modifiedAt, bucketCount);
+		if (!file.exists()) return null;
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (in.readInt() != MAGIC || in.readInt() != bucketCount) throw new IOException("Mismatched peak file");
+			int durationMs = in.readInt();
+			int sampleRate = in.readInt();
+			int channelCount = in.readInt();
+			short[] values = new short[bucketCount * 2];
+			for (int i = 0; i < values.length; i++) values[i] = in.readShort();
+			file.setLastModified(System.currentTimeMillis());
+			return new PeakExtractor.Peaks(values, durationMs, sampleRate, channelCount);
+		} catch (IOException e) {
+			if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, "Dropping unreadable peaks of " + source, e);
+			file.delete();
+			return null;
+		} finally {
+			closeQuietly(in);
+		}
+	}
+
+	synchronized void put(final String source, final long modifiedAt, final PeakExtractor.Peaks peaks) {
+		if (!this.dir.isDirectory() && !this.dir.mkdirs()) return;
+		File file = this.getFile(source, modifiedAt, peaks.getBucketCount());
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			out.writeInt(MAGIC);
+			out.writeInt(peaks.getBucketCount());
+			out.writeInt(peaks.durationMs);
+			out.writeInt(peaks.sampleRate);
+			out.writeInt(peaks.channelCount);
+			for (short value : peaks.values) out.writeShort(value);
+			out.close();
+			out = null;
+		} catch (IOException e) {
+			if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, "Could not cache peaks of " + source, e);
+			closeQuietly(out);
+			file.delete();
+			return;
+		}
+		this.trim();
+	}
+
+	private void trim() {
+		File[] files = this.dir.listFiles();
+		if (files == null || files.length <= MAX_ENTRIES) return;
+		Arrays.sort(files, new Comparator<File>() {
+			@Override
+			public int compare(File a, File b) {
+				return Long.compare(a.lastModified(), b.lastModified());
+			}
+		});
+		for (int i = 0; i < files.length - MAX_ENTRIES; i++) files[i].delete();
+	}
+
+	private File getFile(final String source, final long modifiedAt, final int bucketCount) {
+		return new File(this.dir, SoundHashes.sha1Hex(source + "@" + modifiedAt + "#" + bucketCount) + SUFFIX);
+	}
+
+	private static void closeQuietly(final Closeable closeable) {
+		if (closeable == null) return;
+		try {
+			closeable.close();
+		} catch (IOException ignored) {}
+	}
+
+}
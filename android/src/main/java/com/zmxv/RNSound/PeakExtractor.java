@@ -0,0 +1,102 @@
+package com.zmxv.RNSound;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+/**
+* Reduces a decoded stream to one min/max pair per bucket for waveform drawing, across all channels.
+* Buckets are laid out from the track duration, so only the two peak arrays are held while decoding.
+*/
+class PeakExtractor implements PcmDecoder.Sink {
+
+	/**
+	* Interleaved min/max sample values per bucket, both 0 for buckets without samples
+	*/
+	static class Peaks {
+		final short[] values;
+		final int durationMs;
+		final int sampleRate;
+		final int channelCount;
+
+		Peaks(final short[] values, final int durationMs, final int sampleRate, final int channelCount) {
+			this.values = values;
+			this.durationMs = durationMs;
+			this.sampleRate = sampleRate;
+			this.channelCount = channelCount;
+		}
+
+		int getBucketCount() {
+			return this.values.length / 2;
+		}
+	}
+
+	private final int bucketCount;
+	private final short[] values;
+	private long durationUs;
+	private int sampleRate;
+	private int channelCount;
+	private long totalFrames;
+	private long frames = 0;
+	private int channel = 0;
+	private int bucket = 0;
+	private long bucketEnd;
+
+	private PeakExtractor(final int bucketCount) {
+		this.bucketCount = bucketCount;
+		this.values = new short[bucketCount * 2];
+		for (int i = 0; i < this.values.length; i += 2) {
+			this.values[i] = Short.MAX_VALUE;
+			this.values[i + 1] = Short.MIN_VALUE;
+		}
+	}
+
+	static Peaks extract(final PcmDecoder.Source source, final int bucketCount) throws Exception {
+		if (bucketCount <= 0) throw new Exception("bucketCount must be positive");
+		PeakExtractor extractor = new PeakExtractor(bucketCount);
+		PcmDecoder.stream(source, extractor);
+		return extractor.finish();
+	}
+
+	@Override
+	public void onFormat(int sampleRate, int channelCount, long durationUs) throws Exception {
+		if (durationUs <= 0) throw new Exception("Cannot compute peaks without a known duration");
+		this.durationUs = durationUs;
+		this.sampleRate = sampleRate;
+		this.channelCount = channelCount;
+		this.totalFrames = Math.max(1, durationUs * sampleRate / 1000000);
+		this.bucketEnd = this.getBucketEnd(this.bucket);
+	}
+
+	@Override
+	public void onSamples(ByteBuffer samples) {
+		ShortBuffer buffer = samples.asShortBuffer();
+		short[] values = this.values;
+		int last = this.bucketCount - 1;
+		while (buffer.hasRemaining()) {
+			short sample = buffer.get();
+			int index = this.bucket * 2;
+			if (sample < values[index]) values[index] = sample;
+			if (sample > values[index + 1]) values[index + 1] = sample;
+			if (++this.channel < this.channelCount) continue;
+			this.channel = 0;
+			if (++this.frames >= this.bucketEnd && this.bucket < last) {
+				this.bucket++;
+				this.bucketEnd = this.getBucketEnd(this.bucket);
+			}
+		}
+	}
+
+	private long getBucketEnd(final int bucket) {
+		return (bucket + 1) * this.totalFrames / this.bucketCount;
+	}
+
+	private Peaks finish() {
+		for (int i = 0; i < this.values.length; i += 2) {
+			if (this.values[i] <= this.values[i + 1]) continue;
+			this.values[i] = 0;
+			this.values[i + 1] = 0;
+		}
+		return new Peaks(this.values, (int) (this.durationUs / 1000), this.sampleRate, this.channelCount);
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.zmxv.RNSound;
+
+import android.os.SystemClock;
+import android.util.SparseArray;
+
+/**
+* Snapshot of the playback state of every key, updated by the workers after each command and player callback.
+* Positions of playing keys are extrapolated from the last sync using the playback speed, so the synchronous getters
+* answer from memory without calling into the players on the JS thread.
+*/
+class PlaybackClock {
+
+	private static class KeyState {
+		boolean playing;
+		boolean looping;
+		float speed = 1;
+		int position;
+		int duration = -1;
+		long anchor;
+	}
+
+	private final SparseArray<KeyState> keys = new SparseArray<>();
+
+	/**
+	* Records the position and playing state just read from the player of the key
+	*/
+	synchronized void sync(final int key, final int position, final boolean playing) {
+		if (position < 0) {
+			this.keys.remove(key);
+			return;
+		}
+		KeyState state = this.obtain(key);
+		state.position = position;
+		state.playing = playing;
+		state.anchor = SystemClock.elapsedRealtime();
+	}
+
+	synchronized void setDuration(final int key, final int duration) {
+		this.obtain(key).duration = duration;
+	}
+
+	synchronized void setLooping(final int key, final boolean looping) {
+		KeyState state = this.keys.get(key);
+		if (state != null) state.looping = looping;
+	}
+
+	synchronized void setSpeed(final int key, final float speed) {
+		KeyState state = this.keys.get(key);
+		if (state == null) return;
+		state.position = this.extrapolate(state, SystemClock.elapsedRealtime());
+		state.anchor = SystemClock.elapsedRealtime();
+		state.speed = speed;
+	}
+
+	synchronized void remove(final int key) {
+		this.keys.remove(key);
+	}
+
+	synchronized void clear() {
+		this.keys.clear();
+	}
+
+	/**
+	* Returns the extrapolated position in milliseconds, or -1 if the key has no known state
+	*/
+	synchronized int getPosition(final int key) {
+		KeyState state = this.keys.get(key);
+		return state != null ? this.extrapolate(state, SystemClock.elapsedRealtime()) : -1;
+	}
+
+	/**
+	* Returns whether the key was playing at the last sync and has not run past its duration since
+	*/
+	synchronized boolean isPlaying(final int key) {
+		KeyState state = this.keys.get(key);
+		if (state == null || !state.playing) return false;
+		if (state.looping || state.duration <= 0) return true;
+		return state.position + (SystemClock.elapsedRealtime() - state.anchor) * state.speed < state.duration;
+	}
+
+	private int extrapolate(final KeyState state, final long now) {
+		if (!state.playing) return state.position;
+		long position = state.position + (long) ((now - state.anchor) * state.speed);
+		if (state.duration <= 0) return (int) position;
+		if (state.looping) return (int) (position % state.duration);
+		return (int) Math.min(position, state.duration);
+	}
+
+	private KeyState obtain(final int key) {
+		KeyState state = this.keys.get(key);
+		if (state == null) {
+			state = new KeyState();
+			this.keys.put(key, state);
+		}
+		return state;
+	}
+
+}
@@ -0,0 +1,291 @@
+package com.zmxv.RNSound;
+
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.PromiseImpl;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* Ordered list of keys played back to back. The current player is chained to the next one with
+* setNextMediaPlayer() so transitions are gapless, and the next few items are prepared ahead of time.
+* If the next item is not prepared when the current one completes, it is started natively right away.
+*/
+class PlaybackQueue {
+
+	static final String QUEUE_EVENT = "queue_event";
+	static final int DEFAULT_PREPARE_AHEAD = 2;
+	private static final String TAG = "RNSoundPlaybackQueue";
+	private static final int NONE = Integer.MIN_VALUE;
+
+	interface Host {
+		PlayerEntry getEntry(int key);
+		boolean isLoaded(int key);
+		void load(int key, String dataSource, ReadableMap options, Promise promise);
+		void play(int key) throws Exception;
+		void onStarted(int key);
+	}
+
+	private static class Item {
+		final int key;
+		final String dataSource;
+		final ReadableMap options;
+		boolean loading = false;
+		int load = 0;
+
+		Item(final int key, final String dataSource, final ReadableMap options) {
+			this.key = key;
+			this.dataSource = dataSource;
+			this.options = options;
+		}
+	}
+
+	private final ReactApplicationContext context;
+	private final Host host;
+	private final SoundWorkers workers;
+	private final List<Item> items = new ArrayList<>();
+	private int current = -1;
+	private int prepareAhead = DEFAULT_PREPARE_AHEAD;
+	private int linkedKey = NONE;
+
+	PlaybackQueue(final ReactApplicationContext context, final Host host, final SoundWorkers workers) {
+		this.context = context;
+		this.host = host;
+		this.workers = workers;
+	}
+
+	/**
+	* Replaces the queue with { key, dataSource?, options? } entries. Entries with a dataSource are loaded when they get close.
+	*/
+	synchronized void setQueue(final ReadableArray entries, final int prepareAhead) {
+		this.unlink();
+		this.items.clear();
+		this.current = -1;
+		this.prepareAhead = Math.max(0, prepareAhead);
+		for (int i = 0; i < entries.size(); i++) {
+			ReadableMap entry = entries.getMap(i);
+			String dataSource = entry.hasKey("dataSource") ? entry.getString("dataSource") : null;
+			ReadableMap options = entry.hasKey("options") ? entry.getMap("options") : Arguments.createMap();
+			this.items.add(new Item(entry.getInt("key"), dataSource, options));
+		}
+		this.prepareNext();
+	}
+
+	/**
+	* Inserts nextKey right after key, starting a new queue with key if it is not queued yet
+	*/
+	synchronized void enqueue(final int key, final int nextKey) {
+		int index = this.indexOf(key);
+		if (index < 0) {
+			this.items.add(new Item(key, null, null));
+			index = this.items.size() - 1;
+		}
+		this.items.add(index + 1, new Item(nextKey, null, null));
+		if (index == this.current) {
+			this.unlink();
+			this.link();
+		}
+	}
+
+	synchronized void clear() {
+		this.unlink();
+		this.items.clear();
+		this.current = -1;
+	}
+
+	synchronized void onPlay(final int key) {
+		int index = this.indexOf(key);
+		if (index < 0) return;
+		if (index != this.current) {
+			this.unlink();
+			this.current = index;
+		}
+		this.prepareNext();
+		this.link();
+	}
+
+	synchronized void onPrepared(final int key) {
+		if (this.isNext(key)) this.link();
+	}
+
+	/**
+	* Unlinks the key if it is chained as the next player, before its player is reset or replaced, and forgets its queued load
+	*/
+	synchronized void onInvalidated(final int key) {
+		if (key == this.linkedKey || this.isNext(key)) this.unlink();
+		this.resetLoading(key);
+	}
+
+	synchronized void remove(final int key) {
+		this.onInvalidated(key);
+		int index = this.indexOf(key);
+		if (index < 0) return;
+		this.items.remove(index);
+		if (index == this.current) this.current = -1;
+		else if (index < this.current) this.current--;
+		this.link();
+	}
+
+	void onCompletion(final int key) {
+		Item next;
+		boolean chained = false;
+		synchronized (this) {
+			if (this.current < 0 || this.items.get(this.current).key != key) return;
+			next = this.current + 1 < this.items.size() ? this.items.get(this.current + 1) : null;
+			if (next != null && this.linkedKey == key) {
+				PlayerEntry nextEntry = this.host.getEntry(next.key);
+				chained = nextEntry != null && nextEntry.onStartedByPrevious();
+			}
+			this.linkedKey = NONE;
+			if (chained) {
+				this.current++;
+				this.prepareNext();
+				this.link();
+			} else if (next == null) {
+				this.current = -1;
+			}
+		}
+		if (next == null) return;
+		final int nextKey = next.key;
+		final boolean started = chained;
+		this.workers.post(nextKey, new Runnable() {
+			@Override
+			public void run() {
+				advance(key, nextKey, started);
+			}
+		});
+	}
+
+	synchronized void release() {
+		this.items.clear();
+		this.current = -1;
+		this.linkedKey = NONE;
+	}
+
+	/**
+	* Runs on the worker of the next key, as completion is delivered on the worker of the previous one
+	*/
+	private void advance(final int previousKey, final int key, final boolean chained) {
+		if (chained) {
+			this.host.onStarted(key);
+		} else {
+			try {
+				this.host.play(key);
+			} catch (Exception e) {
+				if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, key + " - Error starting next queued sound", e);
+				this.emit("error", key, previousKey, e.getMessage(), -1);
+				return;
+			}
+		}
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, previousKey + " - Advanced to " + key + (chained ? " gaplessly" : ""));
+		this.emit("transition", key, previousKey, null, -1);
+	}
+
+	private int indexOf(final int key) {
+		for (int i = 0; i < this.items.size(); i++) {
+			if (this.items.get(i).key == key) return i;
+		}
+		return -1;
+	}
+
+	private boolean isNext(final int key) {
+		return this.current >= 0 && this.current + 1 < this.items.size() && this.items.get(this.current + 1).key == key;
+	}
+
+	private void link() {
+		if (this.linkedKey != NONE || this.current < 0 || this.current + 1 >= this.items.size()) return;
+		PlayerEntry entry = this.host.getEntry(this.items.get(this.current).key);
+		PlayerEntry next = this.host.getEntry(this.items.get(this.current + 1).key);
+		if (entry == null || next == null || next.getState() != PlayerState.PREPARED) return;
+		try {
+			if (entry.setNext(next.getPlayer())) this.linkedKey = entry.key;
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, entry.key + " - Error chaining next player", e);
+		}
+	}
+
+	private void unlink() {
+		if (this.linkedKey == NONE) return;
+		PlayerEntry entry = this.host.getEntry(this.linkedKey);
+		this.linkedKey = NONE;
+		if (entry == null) return;
+		try {
+			entry.setNext(null);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, entry.key + " - Error unchaining next player", e);
+		}
+	}
+
+	/**
+	* Lets prepareNext() load the key again. Callbacks of the earlier load no longer touch the items.
+	*/
+	private void resetLoading(final int key) {
+		for (Item item : this.items) {
+			if (item.key != key || !item.loading) continue;
+			item.loading = false;
+			item.load++;
+		}
+	}
+
+	private void onLoadFinished(final Item item, final int load) {
+		synchronized (this) {
+			if (item.load == load) item.loading = false;
+		}
+	}
+
+	private void prepareNext() {
+		int from = Math.max(this.current, 0);
+		int to = Math.min(this.items.size(), from + this.prepareAhead + 1);
+		for (int i = from; i < to; i++) {
+			final Item item = this.items.get(i);
+			if (item.dataSource == null || item.loading || this.host.isLoaded(item.key)) continue;
+			item.loading = true;
+			final int load = ++item.load;
+			this.host.load(item.key, item.dataSource, item.options, new PromiseImpl(new Callback() {
+				@Override
+				public void invoke(Object... args) {
+					onLoadFinished(item, load);
+					ReadableMap loaded = args.length > 0 && args[0] instanceof ReadableMap ? (ReadableMap) args[0] : null;
+					onLoaded(item, loaded != null && loaded.hasKey("duration") ? loaded.getInt("duration") : -1);
+				}
+			}, new Callback() {
+				@Override
+				public void invoke(Object... args) {
+					onLoadFinished(item, load);
+					emit("error", item.key, NONE, "Error preparing queued sound", -1);
+				}
+			}));
+		}
+	}
+
+	private void onLoaded(final Item item, final int duration) {
+		this.emit("loaded", item.key, NONE, null, duration);
+		this.onPrepared(item.key);
+	}
+
+	private void emit(final String type, final int key, final int previousKey, final String error, final int duration) {
+		WritableMap map = Arguments.createMap();
+		map.putString("type", type);
+		map.putInt("key", key);
+		if (previousKey != NONE) map.putInt("previousKey", previousKey);
+		if (error != null) map.putString("error", error);
+		if (duration >= 0) map.putInt("duration", duration);
+		try {
+			this.context
+				.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+				.emit(QUEUE_EVENT, map);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error emitting queue event", e);
+		}
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.zmxv.RNSound;
+
+/**
+* Creates the players used by the default engine, so the benchmark harness can swap in a fake player
+*/
+interface PlayerBackend {
+
+	PlayerBackend DEFAULT = new PlayerBackend() {
+		@Override
+		public SoundPlayer createPlayer() {
+			return new MediaPlayerAdapter();
+		}
+	};
+
+	SoundPlayer createPlayer();
+
+}
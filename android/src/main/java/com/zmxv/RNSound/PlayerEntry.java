@@ -0,0 +1,371 @@
+package com.zmxv.RNSound;
+
+import android.os.Build;
+import android.os.SystemClock;
+
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.EnumSet;
+
+/**
+* A registered player with its lifecycle state and JS callbacks.
+* Every player call goes through here so that illegal calls fail fast instead of
+* putting the player in its error state.
+* The data source and the volume, looping, speed and position settings are remembered so a suspended entry,
+* whose player was given back to save memory, can be prepared again with the same settings.
+*/
+class PlayerEntry {
+
+	private static final EnumSet<PlayerState> PLAYABLE = EnumSet.of(PlayerState.PREPARED, PlayerState.STARTED, PlayerState.PAUSED);
+	private static final EnumSet<PlayerState> CONFIGURABLE = EnumSet.of(PlayerState.IDLE, PlayerState.PREPARED, PlayerState.STARTED, PlayerState.PAUSED);
+
+	final int key;
+	private SoundPlayer player;
+	private PlayerState state = PlayerState.IDLE;
+	private Promise loadPromise;
+	private Callback errorCallback;
+	private Callback completionCallback;
+	private int scheme = SoundMetrics.SCHEME_FILE;
+	private long loadStartedAt = 0;
+	private long lastUsedAt = SystemClock.elapsedRealtime();
+	private String dataSource;
+	private ReadableMap loadOptions;
+	private float leftVolume = 1;
+	private float rightVolume = 1;
+	private boolean looping = false;
+	private float speed = 1;
+	private int position = 0;
+	private boolean resuming = false;
+	private boolean playOnResume = false;
+	private boolean configureOnPrepared = false;
+
+	PlayerEntry(final int key) {
+		this.key = key;
+	}
+
+	synchronized SoundPlayer getPlayer() {
+		return this.player;
+	}
+
+	synchronized PlayerState getState() {
+		return this.state;
+	}
+
+	synchronized int getScheme() {
+		return this.scheme;
+	}
+
+	synchronized long getLoadStartedAt() {
+		return this.loadStartedAt;
+	}
+
+	synchronized long getLastUsedAt() {
+		return this.lastUsedAt;
+	}
+
+	synchronized String getDataSource() {
+		return this.dataSource;
+	}
+
+	synchronized ReadableMap getLoadOptions() {
+		return this.loadOptions;
+	}
+
+	synchronized boolean isSuspended() {
+		return this.state == PlayerState.SUSPENDED;
+	}
+
+	synchronized boolean isResuming() {
+		return this.resuming;
+	}
+
+	/**
+	* Marks the suspended entry as being prepared again. Returns false if that is already under way,
+	* in which case a play request is merged into the pending one.
+	*/
+	synchronized boolean beginResume(final boolean play) {
+		this.playOnResume |= play;
+		if (this.resuming) return false;
+		this.resuming = true;
+		return true;
+	}
+
+	/**
+	* Ends the resume and returns whether play() was requested, and not paused or stopped, in the meantime
+	*/
+	synchronized boolean endResume() {
+		boolean play = this.playOnResume;
+		this.resuming = false;
+		this.playOnResume = false;
+		return play;
+	}
+
+	/**
+	* Returns true if the player is prepared but not playing, and can be suspended
+	*/
+	synchronized boolean isIdle() {
+		return this.player != null && this.dataSource != null && (this.state == PlayerState.PREPARED || this.state == PlayerState.PAUSED);
+	}
+
+	/**
+	* Records the data source and options so the entry can be prepared again after being suspended
+	*/
+	synchronized void remember(final String dataSource, final ReadableMap options) {
+		this.dataSource = dataSource;
+		this.loadOptions = options;
+	}
+
+	synchronized boolean isPlaying() {
+		return this.state == PlayerState.STARTED;
+	}
+
+	synchronized boolean isPlayable() {
+		return this.player != null && PLAYABLE.contains(this.state);
+	}
+
+	synchronized void setErrorCallback(final Callback callback) {
+		this.errorCallback = callback;
+	}
+
+	synchronized void setCompletionCallback(final Callback callback) {
+		this.completionCallback = callback;
+	}
+
+	/**
+	* Attaches a new player that is about to be prepared from a data source of the given SoundMetrics scheme.
+	* Returns the previous player, if any, so it can be recycled.
+	*/
+	synchronized SoundPlayer attach(final SoundPlayer mediaPlayer, final Promise promise, final int scheme) {
+		SoundPlayer previous = this.player;
+		this.rejectPendingLoad("Player for key " + this.key + " was reloaded before being prepared");
+		this.player = mediaPlayer;
+		this.state = PlayerState.PREPARING;
+		this.configureOnPrepared = false;
+		this.loadPromise = promise;
+		this.scheme = scheme;
+		this.loadStartedAt = SystemClock.elapsedRealtime();
+		this.lastUsedAt = this.loadStartedAt;
+		return previous;
+	}
+
+	/**
+	* Detaches an idle player and remembers its position. Returns the player so it can be recycled, or null if not idle.
+	*/
+	synchronized SoundPlayer suspend() {
+		if (!this.isIdle()) return null;
+		int current = this.player.getCurrentPosition();
+		this.position = current < this.player.getDuration() ? current : 0;
+		SoundPlayer suspended = this.player;
+		this.player = null;
+		this.state = PlayerState.SUSPENDED;
+		return suspended;
+	}
+
+	/**
+	* Registers the remembered source as suspended without ever preparing it, for lazy loads.
+	* Returns the previous player, if any, so it can be recycled.
+	*/
+	synchronized SoundPlayer defer() {
+		this.rejectPendingLoad("Player for key " + this.key + " was reloaded before being prepared");
+		SoundPlayer previous = this.player;
+		this.player = null;
+		this.state = PlayerState.SUSPENDED;
+		this.position = 0;
+		this.lastUsedAt = SystemClock.elapsedRealtime();
+		return previous;
+	}
+
+	/**
+	* Applies the remembered settings to the player prepared again after a suspension
+	*/
+	synchronized void restore() {
+		if (!this.isPlayable()) return;
+		this.player.setVolume(this.leftVolume, this.rightVolume);
+		this.player.setLooping(this.looping);
+		if (this.speed != 1 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+			this.player.setSpeed(this.speed);
+		}
+		if (this.position > 0) this.player.seekTo(this.position);
+		this.position = 0;
+	}
+
+	/**
+	* Applies the volume and looping set while preparing, and returns the pending load promise to resolve,
+	* or null if the callback is stale
+	*/
+	synchronized Promise onPrepared(final SoundPlayer mediaPlayer) {
+		if (mediaPlayer != this.player || this.state != PlayerState.PREPARING) return null;
+		this.state = PlayerState.PREPARED;
+		if (this.configureOnPrepared) {
+			this.configureOnPrepared = false;
+			this.player.setVolume(this.leftVolume, this.rightVolume);
+			this.player.setLooping(this.looping);
+		}
+		Promise promise = this.loadPromise;
+		this.loadPromise = null;
+		return promise;
+	}
+
+	/**
+	* Moves to the error state. Returns true if the error belongs to the current player.
+	*/
+	synchronized boolean onError(final SoundPlayer mediaPlayer, final int what, final int extra) {
+		if (mediaPlayer != this.player || this.state == PlayerState.RELEASED) return false;
+		this.state = PlayerState.ERROR;
+		this.rejectPendingLoad("Error while preparing player for key " + this.key + ". What: " + what + " extra: " + extra);
+		return true;
+	}
+
+	/**
+	* Moves to the error state when load() fails before prepareAsync(). Returns false if the promise is not pending here.
+	*/
+	synchronized boolean failLoad(final Promise promise, final Exception e) {
+		if (this.loadPromise != promise) return false;
+		this.state = PlayerState.ERROR;
+		this.loadPromise = null;
+		promise.reject(e);
+		return true;
+	}
+
+	synchronized Callback getErrorCallback() {
+		return this.errorCallback;
+	}
+
+	/**
+	* Returns the completion callback to invoke, or null if there is none or playback is looping
+	*/
+	synchronized Callback onCompletion(final SoundPlayer mediaPlayer) {
+		if (mediaPlayer != this.player || this.state != PlayerState.STARTED || mediaPlayer.isLooping()) return null;
+		this.state = PlayerState.PREPARED;
+		Callback callback = this.completionCallback;
+		this.completionCallback = null;
+		return callback;
+	}
+
+	/**
+	* Chains the player that starts when this one completes, or clears it with null. Returns false if this player cannot be chained.
+	*/
+	synchronized boolean setNext(final SoundPlayer next) {
+		if (this.player == null || !PLAYABLE.contains(this.state)) return false;
+		this.player.setNextPlayer(next);
+		return true;
+	}
+
+	/**
+	* Moves to the started state after the previous player in a gapless chain handed over to this one
+	*/
+	synchronized boolean onStartedByPrevious() {
+		if (this.player == null || this.state != PlayerState.PREPARED) return false;
+		this.state = PlayerState.STARTED;
+		return true;
+	}
+
+	synchronized void start() {
+		this.lastUsedAt = SystemClock.elapsedRealtime();
+		this.ensureState("play", PLAYABLE);
+		if (this.state == PlayerState.STARTED) return;
+		this.player.start();
+		this.state = PlayerState.STARTED;
+	}
+
+	synchronized void pause() {
+		this.playOnResume = false;
+		if (this.state != PlayerState.STARTED) return;
+		this.player.pause();
+		this.state = PlayerState.PAUSED;
+		this.lastUsedAt = SystemClock.elapsedRealtime();
+	}
+
+	synchronized void stop() {
+		this.playOnResume = false;
+		if (this.state == PlayerState.SUSPENDED) this.position = 0;
+		if (this.player == null || !PLAYABLE.contains(this.state)) return;
+		if (this.state == PlayerState.STARTED) this.player.pause();
+		this.player.seekTo(0);
+		this.state = PlayerState.PAUSED;
+	}
+
+	synchronized void reset() {
+		if (this.state == PlayerState.SUSPENDED) {
+			this.state = PlayerState.IDLE;
+			this.position = 0;
+		}
+		if (this.player == null || this.state == PlayerState.RELEASED) return;
+		this.rejectPendingLoad("Player for key " + this.key + " was reset before being prepared");
+		this.player.reset();
+		this.state = PlayerState.IDLE;
+	}
+
+	synchronized void seekTo(final int ms) {
+		this.lastUsedAt = SystemClock.elapsedRealtime();
+		if (this.state == PlayerState.SUSPENDED) this.position = ms;
+		if (this.player == null) return;
+		this.ensureState("setCurrentMillis", PLAYABLE);
+		this.player.seekTo(ms);
+	}
+
+	synchronized int getCurrentPosition() {
+		if (this.state == PlayerState.SUSPENDED) return this.position;
+		return this.isPlayable() ? this.player.getCurrentPosition() : -1;
+	}
+
+	synchronized void setVolume(final float left, final float right) {
+		this.leftVolume = left;
+		this.rightVolume = right;
+		if (this.player == null || this.deferToPrepared()) return;
+		this.ensureState("setVolume", CONFIGURABLE);
+		this.player.setVolume(left, right);
+	}
+
+	synchronized void setLooping(final boolean looping) {
+		this.looping = looping;
+		if (this.player == null || this.deferToPrepared()) return;
+		this.ensureState("setLooping", CONFIGURABLE);
+		this.player.setLooping(looping);
+	}
+
+	synchronized void setSpeed(final float speed) {
+		this.speed = speed;
+		if (this.player == null) return;
+		this.ensureState("setSpeed", PLAYABLE);
+		this.player.setSpeed(speed);
+	}
+
+	/**
+	* Marks the entry as released and detaches its player and callbacks. Returns the player so it can be recycled.
+	*/
+	synchronized SoundPlayer release() {
+		this.rejectPendingLoad("Player for key " + this.key + " was released before being prepared");
+		SoundPlayer released = this.player;
+		this.player = null;
+		this.state = PlayerState.RELEASED;
+		this.errorCallback = null;
+		this.completionCallback = null;
+		return released;
+	}
+
+	/**
+	* Returns true if the player is preparing, in which case the remembered settings are applied once it is prepared
+	*/
+	private boolean deferToPrepared() {
+		if (this.state != PlayerState.PREPARING) return false;
+		this.configureOnPrepared = true;
+		return true;
+	}
+
+	private void ensureState(final String operation, final EnumSet<PlayerState> allowed) {
+		if (this.player == null) throw new IllegalStateException("Undefined player");
+		if (!allowed.contains(this.state)) {
+			throw new IllegalStateException("Cannot call " + operation + "() for key " + this.key + " in state " + this.state);
+		}
+	}
+
+	private void rejectPendingLoad(final String message) {
+		if (this.loadPromise == null) return;
+		this.loadPromise.reject(new Exception(message));
+		this.loadPromise = null;
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.zmxv.RNSound;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+* Gives back the players of idle sounds under memory pressure, least recently used first, and optionally after an idle timeout.
+* Suspended sounds keep their key and settings and are prepared again when they are played. Candidates are picked on the
+* main thread, and the host suspends each one on the worker of its key after checking it is still idle.
+*/
+class PlayerReclaimer implements ComponentCallbacks2 {
+
+	private static final String TAG = "RNSoundPlayerReclaimer";
+	private static final long MIN_SWEEP_INTERVAL_MS = 1000;
+
+	interface Host {
+		List<PlayerEntry> getEntries();
+		void suspend(PlayerEntry entry);
+		void trimCaches(boolean critical);
+	}
+
+	private static final Comparator<PlayerEntry> LEAST_RECENTLY_USED = new Comparator<PlayerEntry>() {
+		@Override
+		public int compare(PlayerEntry a, PlayerEntry b) {
+			return Long.compare(a.getLastUsedAt(), b.getLastUsedAt());
+		}
+	};
+
+	private final Host host;
+	private final Handler handler = new Handler(Looper.getMainLooper());
+	private long idleTimeoutMs = 0;
+
+	private final Runnable sweeper = new Runnable() {
+		@Override
+		public void run() {
+			long timeout = idleTimeoutMs;
+			if (timeout <= 0) return;
+			long now = SystemClock.elapsedRealtime();
+			int suspended = 0;
+			for (PlayerEntry entry : host.getEntries()) {
+				if (!entry.isIdle() || now - entry.getLastUsedAt() < timeout) continue;
+				host.suspend(entry);
+				suspended++;
+			}
+			if (suspended > 0 && SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Suspending " + suspended + " players idle for " + timeout + " ms");
+			handler.postDelayed(this, getSweepInterval(timeout));
+		}
+	};
+
+	PlayerReclaimer(final Host host) {
+		this.host = host;
+	}
+
+	/**
+	* Suspends players that were not used for timeoutMs, or disables the timeout when it is 0
+	*/
+	void setIdleTimeout(final long timeoutMs) {
+		this.idleTimeoutMs = Math.max(0, timeoutMs);
+		this.handler.removeCallbacks(this.sweeper);
+		if (this.idleTimeoutMs > 0) this.handler.postDelayed(this.sweeper, getSweepInterval(this.idleTimeoutMs));
+	}
+
+	@Override
+	public void onTrimMemory(int level) {
+		if (level >= TRIM_MEMORY_RUNNING_CRITICAL) {
+			this.suspendIdle(1);
+			this.host.trimCaches(true);
+		} else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+			this.suspendIdle(0.5);
+			this.host.trimCaches(false);
+		} else if (level >= TRIM_MEMORY_RUNNING_MODERATE) {
+			this.host.trimCaches(false);
+		}
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Trimmed memory for level " + level);
+	}
+
+	@Override
+	public void onLowMemory() {
+		this.onTrimMemory(TRIM_MEMORY_COMPLETE);
+	}
+
+	@Override
+	public void onConfigurationChanged(Configuration newConfig) {}
+
+	void release() {
+		this.handler.removeCallbacks(this.sweeper);
+	}
+
+	/**
+	* Suspends the given fraction of idle players, least recently used first
+	*/
+	private void suspendIdle(final double fraction) {
+		List<PlayerEntry> idle = new ArrayList<>();
+		for (PlayerEntry entry : this.host.getEntries()) {
+			if (entry.isIdle()) idle.add(entry);
+		}
+		Collections.sort(idle, LEAST_RECENTLY_USED);
+		int count = (int) Math.ceil(idle.size() * fraction);
+		for (int i = 0; i < count; i++) this.host.suspend(idle.get(i));
+	}
+
+	private static long getSweepInterval(final long timeoutMs) {
+		return Math.max(MIN_SWEEP_INTERVAL_MS, timeoutMs / 2);
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.zmxv.RNSound;
+
+import android.util.SparseArray;
+
+import com.facebook.react.bridge.Callback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* Thread-safe registry of player entries keyed by the JS sound key
+*/
+class PlayerRegistry {
+
+	private final SparseArray<PlayerEntry> entries = new SparseArray<>();
+	private final SparseArray<Callback> pendingErrorCallbacks = new SparseArray<>();
+
+	synchronized PlayerEntry get(final int key) {
+		return this.entries.get(key);
+	}
+
+	/**
+	* Returns the entry for the key, creating an idle one if none is registered
+	*/
+	synchronized PlayerEntry obtain(final int key) {
+		PlayerEntry entry = this.entries.get(key);
+		if (entry == null) {
+			entry = new PlayerEntry(key);
+			Callback onError = this.pendingErrorCallbacks.get(key);
+			if (onError != null) {
+				entry.setErrorCallback(onError);
+				this.pendingErrorCallbacks.remove(key);
+			}
+			this.entries.put(key, entry);
+		}
+		return entry;
+	}
+
+	/**
+	* Sets the error callback of the entry, or keeps it for the entry created by the next load of the key.
+	* Returns false if it was kept.
+	*/
+	synchronized boolean setErrorCallback(final int key, final Callback onError) {
+		PlayerEntry entry = this.entries.get(key);
+		if (entry == null) {
+			this.pendingErrorCallbacks.put(key, onError);
+			return false;
+		}
+		entry.setErrorCallback(onError);
+		return true;
+	}
+
+	synchronized PlayerEntry remove(final int key) {
+		this.pendingErrorCallbacks.remove(key);
+		PlayerEntry entry = this.entries.get(key);
+		if (entry != null) this.entries.remove(key);
+		return entry;
+	}
+
+	synchronized List<PlayerEntry> values() {
+		List<PlayerEntry> values = new ArrayList<>(this.entries.size());
+		for (int i = 0; i < this.entries.size(); i++) values.add(this.entries.valueAt(i));
+		return values;
+	}
+
+	synchronized List<PlayerEntry> removeAll() {
+		List<PlayerEntry> removed = new ArrayList<>(this.entries.size());
+		for (int i = 0; i < this.entries.size(); i++) removed.add(this.entries.valueAt(i));
+		this.entries.clear();
+		this.pendingErrorCallbacks.clear();
+		return removed;
+	}
+
+	synchronized int size() {
+		return this.entries.size();
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.zmxv.RNSound;
+
+/**
+* Lifecycle states of a registered MediaPlayer
+*/
+enum PlayerState {
+	IDLE,
+	PREPARING,
+	PREPARED,
+	STARTED,
+	PAUSED,
+	SUSPENDED,
+	RELEASED,
+	ERROR
+}
@@ -0,0 +1,200 @@
+package com.zmxv.RNSound;
+
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.PromiseImpl;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+* Runs bulk loads through the regular load() path with a cap on concurrent prepares.
+* Higher priorities start first, and entries with equal priority start in submission order.
+* Every finished key is emitted as a preload event, and each batch promise resolves once all of its keys are done.
+*/
+class PreloadScheduler {
+
+	static final String PRELOAD_EVENT = "preload_event";
+	static final int DEFAULT_MAX_CONCURRENT = 4;
+	private static final String TAG = "RNSoundPreloadScheduler";
+
+	interface Loader {
+		void load(int key, String dataSource, ReadableMap options, Promise promise);
+	}
+
+	private static class Batch {
+		final Promise promise;
+		final WritableArray results = Arguments.createArray();
+		int remaining;
+
+		Batch(final Promise promise, final int remaining) {
+			this.promise = promise;
+			this.remaining = remaining;
+		}
+	}
+
+	private static class Job {
+		final int key;
+		final String dataSource;
+		final ReadableMap options;
+		final int priority;
+		final long sequence;
+		final Batch batch;
+
+		Job(final int key, final String dataSource, final ReadableMap options, final int priority, final long sequence, final Batch batch) {
+			this.key = key;
+			this.dataSource = dataSource;
+			this.options = options;
+			this.priority = priority;
+			this.sequence = sequence;
+			this.batch = batch;
+		}
+	}
+
+	private static final Comparator<Job> ORDER = new Comparator<Job>() {
+		@Override
+		public int compare(Job a, Job b) {
+			if (a.priority != b.priority) return a.priority > b.priority ? -1 : 1;
+			return Long.compare(a.sequence, b.sequence);
+		}
+	};
+
+	private final ReactApplicationContext context;
+	private final Loader loader;
+	private final PriorityQueue<Job> queue = new PriorityQueue<>(16, ORDER);
+	private int maxConcurrent = DEFAULT_MAX_CONCURRENT;
+	private int running = 0;
+	private long sequence = 0;
+
+	PreloadScheduler(final ReactApplicationContext context, final Loader loader) {
+		this.context = context;
+		this.loader = loader;
+	}
+
+	/**
+	* Queues every { key, dataSource, options?, priority? } entry. Options may set maxConcurrent and a default priority.
+	*/
+	void submit(final ReadableArray entries, final ReadableMap options, final Promise promise) {
+		int defaultPriority = options.hasKey("priority") ? options.getInt("priority") : 0;
+		Batch batch = new Batch(promise, entries.size());
+		if (entries.size() == 0) {
+			promise.resolve(batch.results);
+			return;
+		}
+		synchronized (this) {
+			if (options.hasKey("maxConcurrent")) this.maxConcurrent = Math.max(1, options.getInt("maxConcurrent"));
+			for (int i = 0; i < entries.size(); i++) {
+				ReadableMap entry = entries.getMap(i);
+				ReadableMap loadOptions = entry.hasKey("options") ? entry.getMap("options") : Arguments.createMap();
+				int priority = entry.hasKey("priority") ? entry.getInt("priority") : defaultPriority;
+				this.queue.add(new Job(entry.getInt("key"), entry.getString("dataSource"), loadOptions, priority, this.sequence++, batch));
+			}
+		}
+		this.drain();
+	}
+
+	/**
+	* Drops queued entries for the key. Entries already being prepared are not affected.
+	*/
+	void cancel(final int key) {
+		List<Job> cancelled = new ArrayList<>();
+		synchronized (this) {
+			Iterator<Job> iterator = this.queue.iterator();
+			while (iterator.hasNext()) {
+				Job job = iterator.next();
+				if (job.key != key) continue;
+				iterator.remove();
+				cancelled.add(job);
+			}
+		}
+		for (Job job : cancelled) this.finish(job, this.createResult(job, null, null, true), this.createResult(job, null, null, true));
+	}
+
+	synchronized void release() {
+		this.queue.clear();
+	}
+
+	private void drain() {
+		List<Job> started = new ArrayList<>();
+		synchronized (this) {
+			while (this.running < this.maxConcurrent && !this.queue.isEmpty()) {
+				this.running++;
+				started.add(this.queue.poll());
+			}
+		}
+		for (Job job : started) this.start(job);
+	}
+
+	private void start(final Job job) {
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, job.key + " - Starting preload with priority " + job.priority);
+		this.loader.load(job.key, job.dataSource, job.options, new PromiseImpl(new Callback() {
+			@Override
+			public void invoke(Object... args) {
+				ReadableMap loaded = args.length > 0 && args[0] instanceof ReadableMap ? (ReadableMap) args[0] : null;
+				onDone(job, createResult(job, loaded, null, false), createResult(job, loaded, null, false));
+			}
+		}, new Callback() {
+			@Override
+			public void invoke(Object... args) {
+				String error = getErrorMessage(args);
+				onDone(job, createResult(job, null, error, false), createResult(job, null, error, false));
+			}
+		}));
+	}
+
+	private void onDone(final Job job, final WritableMap event, final WritableMap result) {
+		synchronized (this) {
+			this.running--;
+		}
+		this.finish(job, event, result);
+		this.drain();
+	}
+
+	private void finish(final Job job, final WritableMap event, final WritableMap result) {
+		boolean complete;
+		synchronized (this) {
+			job.batch.results.pushMap(result);
+			complete = --job.batch.remaining == 0;
+		}
+		try {
+			this.context
+				.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+				.emit(PRELOAD_EVENT, event);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error emitting preload event", e);
+		}
+		if (complete) job.batch.promise.resolve(job.batch.results);
+	}
+
+	private WritableMap createResult(final Job job, final ReadableMap loaded, final String error, final boolean cancelled) {
+		WritableMap map = Arguments.createMap();
+		map.putInt("key", job.key);
+		map.putBoolean("ok", !cancelled && error == null);
+		if (cancelled) map.putBoolean("cancelled", true);
+		if (error != null) map.putString("error", error);
+		if (loaded != null && loaded.hasKey("duration")) map.putDouble("duration", loaded.getDouble("duration"));
+		if (loaded != null && loaded.hasKey("numberOfChannels")) map.putDouble("numberOfChannels", loaded.getDouble("numberOfChannels"));
+		return map;
+	}
+
+	private static String getErrorMessage(final Object[] args) {
+		if (args.length > 0 && args[0] instanceof ReadableMap) {
+			ReadableMap error = (ReadableMap) args[0];
+			if (error.hasKey("message") && !error.isNull("message")) return error.getString("message");
+		}
+		return "Preload failed";
+	}
+
+}
@@ -0,0 +1,213 @@
+package com.zmxv.RNSound;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+import android.util.SparseArray;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+* Emits one coalesced progress event per tick for every watched key whose position or playing state changed.
+* Each key is sampled on its worker, in order with the commands that pause, reset or release its player, and the event
+* is emitted once every key was sampled. Ticking stops by itself once no watched key is playing and resumes on the
+* next play().
+*/
+class ProgressTicker {
+
+	static final String PROGRESS_EVENT = "progress_event";
+	static final int DEFAULT_INTERVAL = 250;
+	private static final String TAG = "RNSoundProgressTicker";
+
+	interface Sampler {
+		boolean isPlaying(int key);
+		int getPosition(int key);
+	}
+
+	private static class KeyState {
+		boolean enabled = false;
+		boolean active = false;
+		boolean playing = false;
+		int position = Integer.MIN_VALUE;
+	}
+
+	private final ReactApplicationContext context;
+	private final Sampler sampler;
+	private final SoundWorkers workers;
+	private final SparseArray<KeyState> keys = new SparseArray<>();
+	private HandlerThread thread;
+	private Handler handler;
+	private boolean globalEnabled = false;
+	private int interval = DEFAULT_INTERVAL;
+	private boolean running = false;
+	private boolean woken = false;
+
+	private final Runnable tick = new Runnable() {
+		@Override
+		public void run() {
+			tick();
+		}
+	};
+
+	ProgressTicker(final ReactApplicationContext context, final Sampler sampler, final SoundWorkers workers) {
+		this.context = context;
+		this.sampler = sampler;
+		this.workers = workers;
+	}
+
+	synchronized void setInterval(final int interval) {
+		this.interval = Math.max(16, interval);
+	}
+
+	synchronized void setGlobalEnabled(final boolean enabled) {
+		this.globalEnabled = enabled;
+		this.wake();
+	}
+
+	synchronized void setEnabled(final int key, final boolean enabled) {
+		this.obtain(key).enabled = enabled;
+		this.wake();
+	}
+
+	/**
+	* Marks the key as active so it is sampled, and starts ticking if needed
+	*/
+	synchronized void onPlay(final int key) {
+		this.obtain(key).active = true;
+		this.wake();
+	}
+
+	synchronized void remove(final int key) {
+		this.keys.remove(key);
+	}
+
+	synchronized void wake() {
+		if (this.running) {
+			// Keys watched while a tick is sampling are picked up by the next one
+			this.woken = true;
+			return;
+		}
+		if (!this.hasWatchedKeys()) return;
+		if (this.thread == null) {
+			this.thread = new HandlerThread(TAG);
+			this.thread.start();
+			this.handler = new Handler(this.thread.getLooper());
+		}
+		this.running = true;
+		this.handler.post(this.tick);
+	}
+
+	synchronized void release() {
+		this.running = false;
+		this.keys.clear();
+		if (this.thread != null) {
+			this.handler.removeCallbacks(this.tick);
+			if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) this.thread.quitSafely();
+			else this.thread.quit();
+			this.thread = null;
+			this.handler = null;
+		}
+	}
+
+	private KeyState obtain(final int key) {
+		KeyState state = this.keys.get(key);
+		if (state == null) {
+			state = new KeyState();
+			this.keys.put(key, state);
+		}
+		return state;
+	}
+
+	private boolean isWatched(final KeyState state) {
+		return state.active && (this.globalEnabled || state.enabled);
+	}
+
+	private boolean hasWatchedKeys() {
+		for (int i = 0; i < this.keys.size(); i++) {
+			if (this.isWatched(this.keys.valueAt(i))) return true;
+		}
+		return false;
+	}
+
+	/**
+	* Posts the sampling of every watched key to its worker
+	*/
+	private void tick() {
+		final int[] watched;
+		synchronized (this) {
+			if (!this.running) return;
+			this.woken = false;
+			int count = 0;
+			for (int i = 0; i < this.keys.size(); i++) {
+				if (this.isWatched(this.keys.valueAt(i))) count++;
+			}
+			if (count == 0) {
+				this.running = false;
+				return;
+			}
+			watched = new int[count];
+			count = 0;
+			for (int i = 0; i < this.keys.size(); i++) {
+				if (this.isWatched(this.keys.valueAt(i))) watched[count++] = this.keys.keyAt(i);
+			}
+		}
+		final boolean[] playing = new boolean[watched.length];
+		final int[] positions = new int[watched.length];
+		final AtomicInteger remaining = new AtomicInteger(watched.length);
+		for (int i = 0; i < watched.length; i++) {
+			final int index = i;
+			this.workers.post(watched[i], new Runnable() {
+				@Override
+				public void run() {
+					playing[index] = sampler.isPlaying(watched[index]);
+					positions[index] = sampler.getPosition(watched[index]);
+					if (remaining.decrementAndGet() == 0) onSampled(watched, playing, positions);
+				}
+			});
+		}
+	}
+
+	/**
+	* Runs on the worker that sampled the last key, then schedules the next tick if a watched key is playing
+	*/
+	private void onSampled(final int[] watched, final boolean[] playing, final int[] positions) {
+		WritableArray changes = null;
+		synchronized (this) {
+			if (!this.running) return;
+			boolean anyPlaying = false;
+			for (int i = 0; i < watched.length; i++) {
+				int key = watched[i];
+				KeyState state = this.keys.get(key);
+				if (state == null || !this.isWatched(state)) continue;
+				anyPlaying |= playing[i];
+				if (playing[i] == state.playing && positions[i] == state.position) continue;
+				state.playing = playing[i];
+				state.position = positions[i];
+				if (changes == null) changes = Arguments.createArray();
+				WritableMap map = Arguments.createMap();
+				map.putInt("key", key);
+				map.putInt("position", positions[i]);
+				map.putBoolean("isPlaying", playing[i]);
+				changes.pushMap(map);
+			}
+			if (anyPlaying || this.woken) this.handler.postDelayed(this.tick, this.interval);
+			else this.running = false;
+		}
+		if (changes == null) return;
+		try {
+			this.context
+				.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+				.emit(PROGRESS_EVENT, changes);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error emitting progress event", e);
+		}
+	}
+
+}
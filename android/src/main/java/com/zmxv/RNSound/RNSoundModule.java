@@ -8,28 +8,40 @@ import android.media.AudioAttributes;
 import android.media.AudioFocusRequest;
 import android.media.AudioManager;
 import android.media.AudioManager.OnAudioFocusChangeListener;
-import android.media.MediaPlayer;
-import android.media.MediaPlayer.OnCompletionListener;
-import android.media.MediaPlayer.OnErrorListener;
-import android.media.MediaPlayer.OnPreparedListener;
+import android.media.MediaDataSource;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
 import android.net.Uri;
 import android.os.Build;
+import android.os.SystemClock;
+import android.util.Base64;
 import android.util.Log;
 
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.PromiseImpl;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RNSoundModule extends ReactContextBaseJavaModule {
 
@@ -37,280 +49,1512 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 	private static final String AUDIO_FOCUS_EVENT = "audio_focus_event";
 
 	private ReactApplicationContext context;
-	private Map<Integer, MediaPlayer> playerPool = new HashMap<>();
-	private Map<Integer, Callback> errorCallbackPool = new HashMap<>();
+	private PlayerRegistry registry = new PlayerRegistry();
+	private MediaPlayerPool idlePlayerPool = new MediaPlayerPool();
 	private AudioFocusRequest focusRequest;
 	private OnAudioFocusChangeListener afChangeListener;
+	private volatile SoundPoolEngine soundPoolEngine;
+	private volatile PcmEngine pcmEngine;
+	private ProgressTicker progressTicker;
+	private HttpRangeCache httpCache;
+	private MappedClipCache mappedClips;
+	private SoundMetrics metrics;
+	private SystemVolumeCache systemVolume;
+	private PreloadScheduler preloadScheduler;
+	private PlaybackQueue playbackQueue;
+	private PlayerReclaimer reclaimer;
+	private SoundWorkers workers = new SoundWorkers();
+	private PlaybackClock clock = new PlaybackClock();
+	private SoundGroups groups = new SoundGroups();
+	private FocusPolicy focusPolicy = new FocusPolicy();
+	private SoundFader fader;
+	private SoundScheduler scheduler;
+	private SoundSprites sprites;
+	private PeakCache peakCache;
+	private MetadataIndex metadataIndex;
+	private DataSourceResolver resolver;
+	private ExecutorService peakExecutor = Executors.newSingleThreadExecutor();
+
+	private interface KeyAction {
+		void run(int key) throws Exception;
+	}
 
 	public RNSoundModule(ReactApplicationContext context) {
 		super(context);
 		this.context = context;
-		Log.d(TAG, "Initialized");
+		SoundLog.init(context);
+		this.idlePlayerPool.prewarm();
+		this.progressTicker = new ProgressTicker(context, this.createProgressSampler(), this.workers);
+		this.httpCache = new HttpRangeCache(new File(context.getCacheDir(), "RNSoundHttpCache"));
+		this.mappedClips = new MappedClipCache(context);
+		this.peakCache = new PeakCache(new File(context.getCacheDir(), "RNSoundPeaks"));
+		this.metadataIndex = new MetadataIndex(new File(context.getFilesDir(), "RNSoundMetadataIndex"));
+		this.resolver = new DataSourceResolver(context, new File(context.getCacheDir(), "RNSoundDataUris"));
+		this.metrics = new SoundMetrics(context);
+		this.systemVolume = new SystemVolumeCache(context);
+		this.preloadScheduler = new PreloadScheduler(context, new PreloadScheduler.Loader() {
+			@Override
+			public void load(int key, String dataSource, ReadableMap options, Promise promise) {
+				RNSoundModule.this.load(key, dataSource, options, promise);
+			}
+		});
+		this.playbackQueue = new PlaybackQueue(context, this.createQueueHost(), this.workers);
+		this.reclaimer = new PlayerReclaimer(this.createReclaimerHost());
+		this.fader = new SoundFader(this.createFaderHost(), this.workers);
+		this.scheduler = new SoundScheduler(this.createSchedulerHost(), this.workers);
+		this.sprites = new SoundSprites(this.createSpritesHost(), this.workers);
+		context.registerComponentCallbacks(this.reclaimer);
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Initialized");
+	}
+
+	private PlaybackQueue.Host createQueueHost() {
+		return new PlaybackQueue.Host() {
+			@Override
+			public PlayerEntry getEntry(int key) {
+				return registry.get(key);
+			}
+
+			@Override
+			public boolean isLoaded(int key) {
+				return isPoolKey(key) || getPcmPlayer(key) != null || registry.get(key) != null;
+			}
+
+			@Override
+			public void load(int key, String dataSource, ReadableMap options, Promise promise) {
+				RNSoundModule.this.load(key, dataSource, options, promise);
+			}
+
+			@Override
+			public void play(int key) throws Exception {
+				playSound(key);
+			}
+
+			@Override
+			public void onStarted(int key) {
+				progressTicker.onPlay(key);
+				syncClock(key);
+			}
+		};
+	}
+
+	private PlayerReclaimer.Host createReclaimerHost() {
+		return new PlayerReclaimer.Host() {
+			@Override
+			public List<PlayerEntry> getEntries() {
+				return registry.values();
+			}
+
+			@Override
+			public void suspend(final PlayerEntry entry) {
+				workers.post(entry.key, new Runnable() {
+					@Override
+					public void run() {
+						// Commands queued since the sweep may have used or released the entry
+						if (registry.get(entry.key) != entry || !entry.isIdle()) return;
+						suspendPlayer(entry);
+					}
+				});
+			}
+
+			@Override
+			public void trimCaches(boolean critical) {
+				idlePlayerPool.release();
+				if (pcmEngine != null) pcmEngine.trimMemory(critical);
+			}
+		};
+	}
+
+	private SoundFader.Host createFaderHost() {
+		return new SoundFader.Host() {
+			@Override
+			public float[] getVolume(int key) {
+				return groups.getVolume(key);
+			}
+
+			@Override
+			public void setVolume(int key, float left, float right) {
+				setSoundVolume(key, left, right);
+			}
+
+			@Override
+			public SoundPlayer getPlayer(int key) {
+				return RNSoundModule.this.getPlayer(key);
+			}
+
+			@Override
+			public void onFadeEnd(int key, int action) {
+				if (action == SoundFader.END_STOP) stopSound(key);
+				else if (action == SoundFader.END_RELEASE) releaseSound(key);
+			}
+		};
+	}
+
+	private SoundScheduler.Host createSchedulerHost() {
+		return new SoundScheduler.Host() {
+			@Override
+			public SoundScheduler.Starter prime(int key) throws Exception {
+				return primeSound(key);
+			}
+
+			@Override
+			public void onStarted(int key) {
+				progressTicker.onPlay(key);
+				playbackQueue.onPlay(key);
+				syncClock(key);
+			}
+		};
+	}
+
+	private SoundSprites.Host createSpritesHost() {
+		return new SoundSprites.Host() {
+			@Override
+			public int getPosition(int key) {
+				return getSoundCurrentMillis(key);
+			}
+
+			@Override
+			public void onRegionEnd(int key) {
+				pauseSound(key);
+			}
+		};
+	}
+
+	private ProgressTicker.Sampler createProgressSampler() {
+		return new ProgressTicker.Sampler() {
+			@Override
+			public boolean isPlaying(int key) {
+				return isSoundPlaying(key);
+			}
+
+			@Override
+			public int getPosition(int key) {
+				return getSoundCurrentMillis(key);
+			}
+		};
 	}
 
 	@ReactMethod
-	public void setErrorCallback(final Integer key, final Callback onError) {
+	public void setErrorCallback(final int key, final Callback onError) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					boolean attached = registry.setErrorCallback(key, onError);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + (attached ? " - Added error callback" : " - Keeping error callback until load"));
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG,  key + " - Error on setErrorCallback()", e);
+				}
+			}
+		});
+	}
+
+	@ReactMethod
+	public void load(final int key, final String dataSource, final ReadableMap options, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				loadSound(key, dataSource, options, promise);
+			}
+		});
+	}
+
+	private void loadSound(final int key, final String dataSource, final ReadableMap options, final Promise promise) {
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Loading " + dataSource + " ...");
+		boolean traced = SoundTrace.begin(SoundTrace.LOAD);
 		try {
-			this.errorCallbackPool.put(key, onError);
-			Log.d(TAG, key + " - Added error callback");
+			this.groups.assign(key, options.hasKey("group") ? options.getString("group") : null);
+			if (this.isLazy(options) && this.loadLazily(key, dataSource, options, promise)) {
+				if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Lazy load complete. Preparing on first play...");
+				return;
+			}
+			if (this.usePoolEngine(options)) {
+				this.loadIntoSoundPool(key, dataSource, options, promise);
+				if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Pool load complete. Waiting for onLoadComplete...");
+				return;
+			}
+			if (this.usePcmEngine(options)) {
+				this.loadIntoPcmEngine(key, dataSource, options, promise);
+				if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - PCM load queued. Waiting for decode...");
+				return;
+			}
+			PlayerEntry entry = this.registry.obtain(key);
+			entry.remember(dataSource, options);
+			this.playbackQueue.onInvalidated(key);
+			SoundPlayer player = this.idlePlayerPool.acquire();
+			player.setListener(this.createPlayerListener(entry));
+			DataSourceResolver.Resolved source = this.resolver.resolve(dataSource);
+			SoundPlayer previous = entry.attach(player, promise, source.scheme);
+			if (previous != null) this.idlePlayerPool.recycle(previous);
+			this.metrics.onPlayerCounts(this.registry.size(), this.idlePlayerPool.size());
+			this.applyAudioOptions(player, options);
+			this.setMediaPlayerDataSource(player, source, options);
+			boolean prepareTraced = SoundTrace.begin(SoundTrace.PREPARE);
+			try {
+				player.prepareAsync();
+			} finally {
+				SoundTrace.end(prepareTraced);
+			}
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Load complete. Waiting for onPrepared...");
 		} catch (Exception e) {
-			Log.e(TAG,  key + " - Error on setErrorCallback()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG,  key + " - Error on load()", e);
+			PlayerEntry entry = this.registry.get(key);
+			if (entry != null && entry.failLoad(promise, e)) this.metrics.onPrepareError(entry.getScheme());
+			else promise.reject(e);
+		} finally {
+			SoundTrace.end(traced);
+		}
+	}
+
+	/**
+	* Lazy loading only applies to the default MediaPlayer engine
+	*/
+	private boolean isLazy(final ReadableMap options) {
+		return options.hasKey("lazy") && options.getBoolean("lazy") && !this.usePoolEngine(options) && !this.usePcmEngine(options);
+	}
+
+	/**
+	* Resolves a { lazy: true } load with metadata from the index, or read from the container headers, and defers
+	* preparing the player to the first play() or prefetch(). Returns false if the player must be prepared to know the
+	* duration, as for network sources not indexed yet.
+	*/
+	private boolean loadLazily(final int key, final String dataSource, final ReadableMap options, final Promise promise) throws Exception {
+		DataSourceResolver.Resolved source = this.resolver.resolve(dataSource);
+		String indexKey = this.getMetadataKey(dataSource, source);
+		MetadataIndex.Metadata metadata = this.metadataIndex.get(indexKey);
+		if (metadata == null && source.scheme != SoundMetrics.SCHEME_HTTP) metadata = this.probeMetadata(source, options, indexKey);
+		if (metadata == null) return false;
+		PlayerEntry entry = this.registry.obtain(key);
+		entry.remember(dataSource, options);
+		this.playbackQueue.onInvalidated(key);
+		SoundPlayer previous = entry.defer();
+		if (previous != null) this.idlePlayerPool.recycle(previous);
+		this.metrics.onPlayerCounts(this.registry.size(), this.idlePlayerPool.size());
+		this.clock.setDuration(key, metadata.duration);
+		this.syncClock(key);
+		WritableMap map = Arguments.createMap();
+		map.putInt("duration", metadata.duration);
+		if (metadata.channelCount > 0) map.putInt("numberOfChannels", metadata.channelCount);
+		promise.resolve(map);
+		return true;
+	}
+
+	/**
+	* Reads duration and channel count from the audio track format without decoding, and indexes them
+	*/
+	private MetadataIndex.Metadata probeMetadata(final DataSourceResolver.Resolved resolved, final ReadableMap options, final String indexKey) throws Exception {
+		PcmDecoder.Source source = this.getDecoderSource(resolved, options);
+		MediaExtractor extractor = new MediaExtractor();
+		try {
+			source.apply(extractor);
+			int track = PcmDecoder.selectAudioTrack(extractor);
+			if (track < 0) return null;
+			MediaFormat format = extractor.getTrackFormat(track);
+			if (!format.containsKey(MediaFormat.KEY_DURATION)) return null;
+			int duration = (int) (format.getLong(MediaFormat.KEY_DURATION) / 1000);
+			int channelCount = format.containsKey(MediaFormat.KEY_CHANNEL_COUNT) ? format.getInteger(MediaFormat.KEY_CHANNEL_COUNT) : -1;
+			this.metadataIndex.put(indexKey, duration, channelCount);
+			return new MetadataIndex.Metadata(duration, channelCount);
+		} finally {
+			extractor.release();
+			if (source instanceof Closeable) ((Closeable) source).close();
 		}
 	}
 
+	/**
+	* Keys the metadata of a source by its size and modification time, so a replaced file is probed again. Hashed, as the
+	* index cannot store keys over 64 KB, such as long data: URIs.
+	*/
+	private String getMetadataKey(final String dataSource, final DataSourceResolver.Resolved source) {
+		long size = source.scheme == SoundMetrics.SCHEME_FILE ? new File(source.location).length() : 0;
+		return SoundHashes.sha1Hex(dataSource + "|" + size + "|" + this.getSourceModifiedAt(source));
+	}
+
+	/**
+	* Prepares lazily loaded or suspended keys ahead of their first play()
+	*/
 	@ReactMethod
-	public void load(final Integer key, final String dataSource, final ReadableMap options, final Promise promise) {
-		Log.d(TAG, key + " - Loading " + dataSource + " ...");
+	public void prefetch(final ReadableArray keys, final Promise promise) {
 		try {
-			MediaPlayer player = new MediaPlayer();
-			this.playerPool.put(key, player);
-			player.setOnErrorListener(this.createOnErrorListener(key));
-			player.setOnPreparedListener(this.createOnPreparedListener(key, promise));
-			this.applyAudioOptions(player, options);
-			this.setMediaPlayerDataSource(player, dataSource);
-			player.prepareAsync();
-			Log.d(TAG, key + " - Load complete. Waiting for onPrepared...");
+			this.runOnKeys(toKeys(keys), "prefetch", new KeyAction() {
+				@Override
+				public void run(int key) {
+					PlayerEntry entry = registry.get(key);
+					if (entry != null && entry.isSuspended()) resumePlayer(entry, false);
+				}
+			}, promise);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on prefetch()", e);
+			promise.reject(e);
+		}
+	}
+
+	/**
+	* Loads one source whose named regions { name: [startMs, endMs] } are played with playRegion(). Uses the mixer engine
+	* unless another engine is given, so regions are cut off sample exactly and can overlap.
+	*/
+	@ReactMethod
+	public void loadSprite(final int key, final String dataSource, final ReadableMap regions, final ReadableMap options, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (usePoolEngine(options)) throw new Exception("Sprites are not supported by the pool engine");
+					// On the worker, so commands queued before this load still see the previous regions
+					sprites.setRegions(key, regions);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, key + " - Error on loadSprite()", e);
+					promise.reject(e);
+					return;
+				}
+				WritableMap spriteOptions = Arguments.createMap();
+				spriteOptions.merge(options);
+				if (!options.hasKey("engine")) spriteOptions.putString("engine", "mixer");
+				loadSound(key, dataSource, spriteOptions, promise);
+			}
+		});
+	}
+
+	@ReactMethod
+	public void playRegion(final int key, final String name, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					playSoundRegion(key, sprites.getRegion(key, name));
+					promise.resolve(null);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Playing region " + name);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on playRegion()", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
+	private void playSoundRegion(final int key, final int[] region) throws Exception {
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null && pcmPlayer.playRegion(region[0], region[1])) {
+			this.progressTicker.onPlay(key);
+			this.syncClock(key);
+			return;
+		}
+		this.setSoundCurrentMillis(key, region[0]);
+		this.playSound(key);
+		this.sprites.watch(key, region[1]);
+	}
+
+	@ReactMethod
+	public void preload(final ReadableArray entries, final ReadableMap options, final Promise promise) {
+		try {
+			this.preloadScheduler.submit(entries, options, promise);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Queued " + entries.size() + " sounds for preload");
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on preload()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void cancelPreload(final ReadableArray keys, final Promise promise) {
+		try {
+			for (int i = 0; i < keys.size(); i++) this.preloadScheduler.cancel(keys.getInt(i));
+			promise.resolve(null);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on cancelPreload()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void setQueue(final ReadableArray entries, final ReadableMap options, final Promise promise) {
+		try {
+			int prepareAhead = options.hasKey("prepareAhead") ? options.getInt("prepareAhead") : PlaybackQueue.DEFAULT_PREPARE_AHEAD;
+			this.playbackQueue.setQueue(entries, prepareAhead);
+			promise.resolve(null);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set queue with " + entries.size() + " sounds");
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setQueue()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void enqueue(final int key, final int nextKey, final Promise promise) {
+		try {
+			this.playbackQueue.enqueue(key, nextKey);
+			promise.resolve(null);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Enqueued " + nextKey);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on enqueue()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void clearQueue(final Promise promise) {
+		try {
+			this.playbackQueue.clear();
+			promise.resolve(null);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on clearQueue()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void configurePlayerPool(final ReadableMap options, final Promise promise) {
+		try {
+			int minSize = options.hasKey("minSize") ? options.getInt("minSize") : MediaPlayerPool.DEFAULT_MIN_SIZE;
+			int maxSize = options.hasKey("maxSize") ? options.getInt("maxSize") : MediaPlayerPool.DEFAULT_MAX_SIZE;
+			this.idlePlayerPool.configure(minSize, maxSize);
+			promise.resolve(null);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Configured player pool - Min: " + minSize + ", Max: " + maxSize);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on configurePlayerPool()", e);
+			promise.reject(e);
+		}
+	}
+
+	/**
+	* Switches the backend of the default engine, so the benchmark harness can load test with fake players.
+	* Only affects later loads. Not exposed to JS.
+	*/
+	void setPlayerBackend(final PlayerBackend backend) {
+		this.idlePlayerPool.setBackend(backend);
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set player backend: " + backend);
+	}
+
+	private SoundPlayer getPlayer(final int key) {
+		PlayerEntry entry = this.registry.get(key);
+		return entry != null ? entry.getPlayer() : null;
+	}
+
+	private boolean usePoolEngine(final ReadableMap options) {
+		return options.hasKey("engine") && "pool".equals(options.getString("engine"));
+	}
+
+	private synchronized SoundPoolEngine getSoundPoolEngine(final ReadableMap options) {
+		if (this.soundPoolEngine == null) {
+			Object attributes = Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP ? null : getAudioAttributes(options);
+			this.soundPoolEngine = new SoundPoolEngine(this.context, attributes, getAudioStreamType(options));
+		}
+		return this.soundPoolEngine;
+	}
+
+	private boolean isPoolKey(final int key) {
+		return this.soundPoolEngine != null && this.soundPoolEngine.hasKey(key);
+	}
+
+	private void loadIntoSoundPool(final int key, final String dataSource, final ReadableMap options, final Promise promise) throws Exception {
+		DataSourceResolver.Resolved source = this.resolver.resolve(dataSource);
+		SoundPoolEngine engine = this.getSoundPoolEngine(options);
+		if (source.scheme == SoundMetrics.SCHEME_RAW) engine.loadResource(key, source.resId, promise);
+		else if (source.scheme == SoundMetrics.SCHEME_ASSET) engine.loadAsset(key, source.location, promise);
+		else if (source.scheme == SoundMetrics.SCHEME_FILE) engine.loadFile(key, source.location, promise);
+		else throw new Exception("Network and content sources are not supported by the pool engine");
+	}
+
+	private boolean usePcmEngine(final ReadableMap options) {
+		return options.hasKey("engine") && ("pcm".equals(options.getString("engine")) || this.useMixer(options));
+	}
+
+	private boolean useMixer(final ReadableMap options) {
+		return options.hasKey("engine") && "mixer".equals(options.getString("engine"));
+	}
+
+	private synchronized PcmEngine getPcmEngine() {
+		if (this.pcmEngine == null) this.pcmEngine = new PcmEngine(this.context, this.mappedClips);
+		return this.pcmEngine;
+	}
+
+	private PcmSound getPcmPlayer(final int key) {
+		return this.pcmEngine != null ? this.pcmEngine.getPlayer(key) : null;
+	}
+
+	private void loadIntoPcmEngine(final int key, final String dataSource, final ReadableMap options, final Promise promise) throws Exception {
+		PcmEngine engine = this.getPcmEngine();
+		Object attributes = Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP ? null : getAudioAttributes(options);
+		int streamType = getAudioStreamType(options);
+		boolean mixed = this.useMixer(options);
+		DataSourceResolver.Resolved source = this.resolver.resolve(dataSource);
+		if (source.scheme == SoundMetrics.SCHEME_RAW) engine.loadResource(key, source.resId, attributes, streamType, mixed, promise);
+		else if (source.scheme == SoundMetrics.SCHEME_ASSET) engine.loadAsset(key, source.location, attributes, streamType, mixed, promise);
+		else if (source.scheme == SoundMetrics.SCHEME_FILE) engine.loadFile(key, source.location, attributes, streamType, mixed, promise);
+		else engine.loadUri(key, source.location, attributes, streamType, mixed, promise);
+	}
+
+	@ReactMethod
+	public void setPcmCacheSize(final int maxBytes, final Promise promise) {
+		try {
+			this.getPcmEngine().setMaxBytes(maxBytes);
+			promise.resolve(null);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set PCM cache size to " + maxBytes);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setPcmCacheSize()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void getPcmCacheStats(final Promise promise) {
+		try {
+			promise.resolve(this.getPcmEngine().getStats());
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on getPcmCacheStats()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void configureMixer(final ReadableMap options, final Promise promise) {
+		try {
+			int maxVoices = options.hasKey("maxVoices") ? options.getInt("maxVoices") : PcmMixer.DEFAULT_MAX_VOICES;
+			this.getPcmEngine().setMixerMaxVoices(maxVoices);
+			promise.resolve(null);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Configured mixer - Max voices: " + maxVoices);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on configureMixer()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void getMixerStats(final Promise promise) {
+		try {
+			promise.resolve(this.getPcmEngine().getMixerStats());
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on getMixerStats()", e);
+			promise.reject(e);
+		}
+	}
+
+	/**
+	* Moves the player callbacks to the worker of the key, like every other command for it
+	*/
+	private SoundPlayer.Listener createPlayerListener(final PlayerEntry entry) {
+		return new SoundPlayer.Listener() {
+			@Override
+			public void onPrepared(final SoundPlayer player) {
+				workers.execute(entry.key, new Runnable() {
+					@Override
+					public void run() {
+						onPlayerPrepared(entry, player);
+					}
+				});
+			}
+
+			@Override
+			public void onCompletion(final SoundPlayer player) {
+				workers.execute(entry.key, new Runnable() {
+					@Override
+					public void run() {
+						onPlayerCompletion(entry, player);
+					}
+				});
+			}
+
+			@Override
+			public void onError(final SoundPlayer player, final int what, final int extra) {
+				workers.execute(entry.key, new Runnable() {
+					@Override
+					public void run() {
+						onPlayerError(entry, player, what, extra);
+					}
+				});
+			}
+		};
+	}
+
+	private void onPlayerError(final PlayerEntry entry, final SoundPlayer mediaPlayer, final int what, final int extra) {
+		if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, entry.key + " - Error. What: " + what + " extra: " + extra);
+		boolean traced = SoundTrace.begin(SoundTrace.ON_ERROR);
+		try {
+			boolean preparing = entry.getState() == PlayerState.PREPARING;
+			if (!entry.onError(mediaPlayer, what, extra)) return;
+			this.syncClock(entry.key);
+			if (preparing) this.metrics.onPrepareError(entry.getScheme());
+			WritableMap errorMap = Arguments.createMap();
+			errorMap.putInt("what", what);
+			errorMap.putInt("extra", extra);
+			try {
+				Callback onError = entry.getErrorCallback();
+				if (onError != null) onError.invoke(errorMap);
+				else if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "OnErrorListener(): no on errror callback found for key " + entry.key);
+			} catch (Exception e) {
+				if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "OnErrorListener(): onError callback already dispatched!", e);
+			}
+		} finally {
+			SoundTrace.end(traced);
+		}
+	}
+
+	private void onPlayerPrepared(final PlayerEntry entry, final SoundPlayer mediaPlayer) {
+		Promise promise = entry.onPrepared(mediaPlayer);
+		if (promise == null) return;
+		this.metrics.onPrepared(entry.getScheme(), SystemClock.elapsedRealtime() - entry.getLoadStartedAt());
+		boolean traced = SoundTrace.begin(SoundTrace.ON_PREPARED);
+		try {
+			WritableMap map = Arguments.createMap();
+			map.putInt("duration", mediaPlayer.getDuration());
+			this.clock.setDuration(entry.key, mediaPlayer.getDuration());
+			this.syncClock(entry.key);
+			promise.resolve(map);
+			this.indexMetadata(entry.getDataSource(), mediaPlayer.getDuration());
+			this.playbackQueue.onPrepared(entry.key);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, entry.key + " - Prepared completed!");
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, entry.key + " - Error on OnPreparedListener()", e);
+			promise.reject(e);
+		} finally {
+			SoundTrace.end(traced);
+		}
+	}
+
+	/**
+	* Remembers the duration of a prepared source for later lazy loads
+	*/
+	private void indexMetadata(final String dataSource, final int duration) {
+		if (dataSource == null || duration <= 0) return;
+		try {
+			this.metadataIndex.put(this.getMetadataKey(dataSource, this.resolver.resolve(dataSource)), duration, -1);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, "Could not index metadata of " + dataSource, e);
+		}
+	}
+
+	private void applyAudioOptions(final SoundPlayer mediaPlayer, final ReadableMap options) {
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+			mediaPlayer.setAudioStreamType(getAudioStreamType(options));
+		} else {
+			mediaPlayer.setAudioAttributes((AudioAttributes) getAudioAttributes(options));
+		}
+	}
+
+	private Object getAudioAttributes(final ReadableMap options) {
+		return new AudioAttributes.Builder()
+			.setUsage(useAlarmChannel(options) ? AudioAttributes.USAGE_ALARM : AudioAttributes.USAGE_MEDIA)
+			.setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
+			.build();
+	}
+
+	private boolean useAlarmChannel(final ReadableMap options) {
+		return options.hasKey("useAlarmChannel") ? options.getBoolean("useAlarmChannel") : false;
+	}
+
+	private int getAudioStreamType(final ReadableMap options) {
+		if (useAlarmChannel(options)) return AudioManager.STREAM_ALARM;
+		return AudioManager.STREAM_MUSIC;
+	}
+
+	private void setMediaPlayerDataSource(final SoundPlayer mediaPlayer, final DataSourceResolver.Resolved source, final ReadableMap options) throws Exception {
+		if (source.scheme == SoundMetrics.SCHEME_RAW) this.setDataSourceFromUri(mediaPlayer, source);
+		else if (source.scheme == SoundMetrics.SCHEME_ASSET) this.setDataSourceFromAsset(mediaPlayer, source);
+		else if (source.scheme == SoundMetrics.SCHEME_HTTP) this.setDataSourceFromNetwork(mediaPlayer, source.location, options);
+		else if (source.scheme == SoundMetrics.SCHEME_CONTENT) mediaPlayer.setDataSource(this.context, Uri.parse(source.location));
+		else this.setDataSourceFromFile(mediaPlayer, source.location);
+	}
+
+	private void setDataSourceFromUri(final SoundPlayer mediaPlayer, final DataSourceResolver.Resolved source) throws Exception {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M && this.setMappedDataSource(mediaPlayer, source, false)) return;
+		Uri uri = Uri.parse("android.resource://" + this.context.getPackageName() + "/raw/" + source.location);
+		mediaPlayer.setDataSource(this.context, uri);
+	}
+
+	private void setDataSourceFromAsset(final SoundPlayer mediaPlayer, final DataSourceResolver.Resolved source) throws Exception {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M && this.setMappedDataSource(mediaPlayer, source, true)) return;
+		AssetFileDescriptor desc = this.context.getAssets().openFd(source.location);
+		mediaPlayer.setDataSource(desc.getFileDescriptor(), desc.getStartOffset(), desc.getLength());
+		desc.close();
+	}
+
+	/**
+	* Plays an uncompressed asset or raw resource from its shared mapping. Returns false if it cannot be mapped.
+	*/
+	private boolean setMappedDataSource(final SoundPlayer mediaPlayer, final DataSourceResolver.Resolved resolved, final boolean asset) {
+		MediaDataSource source = null;
+		try {
+			source = asset ? this.mappedClips.openAsset(resolved.location) : this.mappedClips.openResource(resolved.resId);
+			mediaPlayer.setDataSource(source);
+			return true;
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Could not map " + resolved.location + ", falling back to a file descriptor: " + e.getMessage());
+			if (source != null) {
+				try {
+					source.close();
+				} catch (IOException ignored) {}
+			}
+			return false;
+		}
+	}
+
+	/**
+	* Streams through the on-disk HttpRangeCache when MediaDataSource is available, unless { httpCache: false }
+	*/
+	private void setDataSourceFromNetwork(final SoundPlayer mediaPlayer, final String url, final ReadableMap options) throws Exception {
+		boolean useCache = options.hasKey("httpCache") ? options.getBoolean("httpCache") : true;
+		if (useCache && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) mediaPlayer.setDataSource(this.httpCache.open(url));
+		else mediaPlayer.setDataSource(url);
+	}
+
+	@ReactMethod
+	public void setHttpCacheSize(final int maxBytes, final Promise promise) {
+		try {
+			this.httpCache.setMaxBytes(maxBytes);
+			promise.resolve(null);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set HTTP cache size to " + maxBytes);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setHttpCacheSize()", e);
+			promise.reject(e);
+		}
+	}
+
+	private void setDataSourceFromFile(final SoundPlayer mediaPlayer, final String fileName) throws Exception {
+		Uri uri = Uri.fromFile(new File(fileName));
+		mediaPlayer.setDataSource(this.context, uri);
+	}
+
+	@ReactMethod
+	public void getResolverStats(final Promise promise) {
+		try {
+			promise.resolve(this.resolver.getStats());
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on getResolverStats()", e);
+			promise.reject(e);
+		}
+	}
+
+	/**
+	* Forgets how a data source, or every data source if null, was resolved, e.g. after a file was replaced or deleted
+	*/
+	@ReactMethod
+	public void invalidateDataSource(final String dataSource, final Promise promise) {
+		try {
+			this.resolver.invalidate(dataSource);
+			promise.resolve(null);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on invalidateDataSource()", e);
+			promise.reject(e);
+		}
+	}
+
+	/**
+	* Decodes the source in one streaming pass on a background thread and resolves with
+	* { durationMs, sampleRate, channelCount, bucketCount, peaks }, where peaks interleaves the min and max of every bucket
+	* in [-1, 1]. Results are cached on disk by source and modification time.
+	*/
+	@ReactMethod
+	public void getPeaks(final String dataSource, final int bucketCount, final ReadableMap options, final Promise promise) {
+		this.peakExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				PcmDecoder.Source source = null;
+				try {
+					DataSourceResolver.Resolved resolved = resolver.resolve(dataSource);
+					long modifiedAt = getSourceModifiedAt(resolved);
+					PeakExtractor.Peaks peaks = peakCache.get(dataSource, modifiedAt, bucketCount);
+					if (peaks == null) {
+						source = getDecoderSource(resolved, options);
+						peaks = PeakExtractor.extract(source, bucketCount);
+						peakCache.put(dataSource, modifiedAt, peaks);
+						if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Computed " + bucketCount + " peaks of " + dataSource);
+					}
+					promise.resolve(toPeaksMap(peaks));
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on getPeaks()", e);
+					promise.reject(e);
+				} finally {
+					if (source instanceof Closeable) {
+						try {
+							((Closeable) source).close();
+						} catch (IOException ignored) {}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	* Opens a resolved data source for MediaExtractor the way setMediaPlayerDataSource() opens it for the player
+	*/
+	private PcmDecoder.Source getDecoderSource(final DataSourceResolver.Resolved source, final ReadableMap options) throws Exception {
+		PcmEngine engine = this.getPcmEngine();
+		if (source.scheme == SoundMetrics.SCHEME_RAW) return engine.resourceSource(source.resId);
+		if (source.scheme == SoundMetrics.SCHEME_ASSET) return engine.assetSource(source.location);
+		if (source.scheme == SoundMetrics.SCHEME_HTTP) {
+			boolean useCache = options.hasKey("httpCache") ? options.getBoolean("httpCache") : true;
+			if (useCache && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) return new HttpDecoderSource(this.httpCache.open(source.location));
+		}
+		if (source.scheme == SoundMetrics.SCHEME_FILE) return engine.fileSource(source.location);
+		return engine.uriSource(source.location);
+	}
+
+	/**
+	* Bundled sources change with the app, files with their own modification time. URLs are cached by address only.
+	*/
+	private long getSourceModifiedAt(final DataSourceResolver.Resolved source) {
+		if (source.scheme == SoundMetrics.SCHEME_RAW || source.scheme == SoundMetrics.SCHEME_ASSET) return new File(this.context.getApplicationInfo().sourceDir).lastModified();
+		if (source.scheme == SoundMetrics.SCHEME_FILE) return new File(source.location).lastModified();
+		return 0;
+	}
+
+	/**
+	* Peaks go over the bridge as base64 of little endian 16 bit samples, as an array would box every value into a double
+	*/
+	private static WritableMap toPeaksMap(final PeakExtractor.Peaks peaks) {
+		ByteBuffer bytes = ByteBuffer.allocate(peaks.values.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+		bytes.asShortBuffer().put(peaks.values);
+		WritableMap map = Arguments.createMap();
+		map.putInt("durationMs", peaks.durationMs);
+		map.putInt("sampleRate", peaks.sampleRate);
+		map.putInt("channelCount", peaks.channelCount);
+		map.putInt("bucketCount", peaks.getBucketCount());
+		map.putString("peaks", Base64.encodeToString(bytes.array(), Base64.NO_WRAP));
+		return map;
+	}
+
+	/**
+	* Reads through the HttpRangeCache, which must be closed once decoding is done
+	*/
+	private static class HttpDecoderSource implements PcmDecoder.Source, Closeable {
+		private final CachedHttpDataSource dataSource;
+
+		HttpDecoderSource(final CachedHttpDataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		@Override
+		public void apply(MediaExtractor extractor) throws Exception {
+			extractor.setDataSource(this.dataSource);
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.dataSource.close();
+		}
+	}
+
+	@ReactMethod
+	public void setOnCompletionListener(final int key, final Callback onComplete) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (isPoolKey(key)) {
+						if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - OnCompletion listener is not supported by the pool engine");
+						return;
+					}
+					PcmSound pcmPlayer = getPcmPlayer(key);
+					if (pcmPlayer != null) pcmPlayer.setOnCompletionListener(onComplete);
+					PlayerEntry entry = registry.get(key);
+					if (entry != null && !entry.isPlaying()) entry.setCompletionCallback(onComplete);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Set OnCompletion listener");
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setOnCompletionListener()", e);
+				}
+			}
+		});
+	}
+
+	private void onPlayerCompletion(final PlayerEntry entry, final SoundPlayer mediaPlayer) {
+		boolean traced = SoundTrace.begin(SoundTrace.ON_COMPLETION);
+		try {
+			Callback callback = entry.onCompletion(mediaPlayer);
+			this.syncClock(entry.key);
+			if (mediaPlayer == entry.getPlayer()) this.playbackQueue.onCompletion(entry.key);
+			if (callback == null) return;
+			try {
+				callback.invoke();
+				if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, entry.key + " - Playing complete!");
+			} catch (Exception e) {
+				if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "The on completion callback was already invoked", e);
+			}
+		} finally {
+			SoundTrace.end(traced);
+		}
+	}
+
+	@ReactMethod
+	public void play(final int key, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				boolean traced = SoundTrace.begin(SoundTrace.PLAY);
+				try {
+					playSound(key);
+					promise.resolve(null);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Started playing...");
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on play()", e);
+					promise.reject(e);
+				} finally {
+					SoundTrace.end(traced);
+				}
+			}
+		});
+	}
+
+	private void playSound(final int key) throws Exception {
+		float[] pendingVolume = this.groups.takePendingVolume(key);
+		if (pendingVolume != null) this.setSoundVolume(key, pendingVolume[0], pendingVolume[1]);
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (this.isPoolKey(key)) {
+			this.soundPoolEngine.play(key);
+		} else if (pcmPlayer != null) {
+			pcmPlayer.play();
+		} else {
+			PlayerEntry entry = this.registry.get(key);
+			if (entry == null) throw new Exception("Undefined player");
+			if (entry.isSuspended() || entry.isResuming()) {
+				this.resumePlayer(entry, true);
+				return;
+			}
+			boolean wasPlaying = entry.isPlaying();
+			entry.start();
+			if (!wasPlaying) this.metrics.probeStart(entry);
+		}
+		this.progressTicker.onPlay(key);
+		this.playbackQueue.onPlay(key);
+		this.syncClock(key);
+	}
+
+	/**
+	* Applies pending settings and readies the key, returning the bare start call for the scheduler thread.
+	* MediaPlayer keys are only checked, and started on their worker. Suspended or still loading players are rejected,
+	* as preparing them would defeat the synchronized start.
+	*/
+	private SoundScheduler.Starter primeSound(final int key) throws Exception {
+		float[] pendingVolume = this.groups.takePendingVolume(key);
+		if (pendingVolume != null) this.setSoundVolume(key, pendingVolume[0], pendingVolume[1]);
+		if (this.isPoolKey(key)) {
+			final SoundPoolEngine engine = this.soundPoolEngine;
+			return new SoundScheduler.Starter() {
+				@Override
+				public void start() throws Exception {
+					engine.play(key);
+				}
+			};
+		}
+		final PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) {
+			pcmPlayer.prime();
+			return new SoundScheduler.Starter() {
+				@Override
+				public void start() {
+					pcmPlayer.play();
+				}
+			};
+		}
+		final PlayerEntry entry = this.registry.get(key);
+		if (entry == null) throw new Exception("Undefined player");
+		if (!entry.isPlayable()) throw new Exception("Player " + key + " is not prepared");
+		return new SoundScheduler.WorkerStarter() {
+			@Override
+			public void start() throws Exception {
+				if (registry.get(key) != entry) throw new Exception("Player " + key + " was released");
+				entry.start();
+			}
+		};
+	}
+
+	/**
+	* Starts every key at startTimeNanos on the clock of getClockNanosSync(), primed beforehand, and resolves with how far apart the starts were issued
+	*/
+	@ReactMethod
+	public void playAt(final ReadableArray keys, final double startTimeNanos, final Promise promise) {
+		try {
+			this.scheduler.playAt(toKeys(keys), (long) startTimeNanos, promise);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on playAt()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void playTogether(final ReadableArray keys, final Promise promise) {
+		try {
+			this.scheduler.playAt(toKeys(keys), 0, promise);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on playTogether()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod(isBlockingSynchronousMethod = true)
+	public double getClockNanosSync() {
+		return SoundScheduler.nowNanos();
+	}
+
+	private static int[] toKeys(final ReadableArray keys) {
+		int[] array = new int[keys.size()];
+		for (int i = 0; i < array.length; i++) array[i] = keys.getInt(i);
+		return array;
+	}
+
+	/**
+	* Refreshes the snapshot read by the synchronous getters. Must run on the worker of the key.
+	*/
+	private void syncClock(final int key) {
+		this.clock.sync(key, this.getSoundCurrentMillis(key), this.isSoundPlaying(key));
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) this.clock.setDuration(key, pcmPlayer.getDurationMillis());
+	}
+
+	/**
+	* Gives the player of an idle sound back to the pool. The entry keeps its settings and is prepared again when played.
+	*/
+	private void suspendPlayer(final PlayerEntry entry) {
+		this.playbackQueue.onInvalidated(entry.key);
+		SoundPlayer player = entry.suspend();
+		if (player == null) return;
+		this.idlePlayerPool.recycle(player);
+		this.metrics.onPlayerCounts(this.registry.size(), this.idlePlayerPool.size());
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, entry.key + " - Suspended");
+	}
+
+	/**
+	* Prepares a suspended sound again from its remembered data source and restores its settings
+	*/
+	private void resumePlayer(final PlayerEntry entry, final boolean play) {
+		if (!entry.beginResume(play)) return;
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, entry.key + " - Resuming suspended player");
+		WritableMap options = Arguments.createMap();
+		options.merge(entry.getLoadOptions());
+		options.putBoolean("lazy", false);
+		this.load(entry.key, entry.getDataSource(), options, new PromiseImpl(new Callback() {
+			@Override
+			public void invoke(Object... args) {
+				try {
+					entry.restore();
+					if (entry.endResume()) playSound(entry.key);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, entry.key + " - Error restoring suspended player", e);
+				}
+			}
+		}, new Callback() {
+			@Override
+			public void invoke(Object... args) {
+				entry.endResume();
+				if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, entry.key + " - Error preparing suspended player again");
+			}
+		}));
+	}
+
+	@ReactMethod
+	public void setIdleTimeout(final int seconds, final Promise promise) {
+		try {
+			this.reclaimer.setIdleTimeout(seconds * 1000L);
+			promise.resolve(null);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set idle timeout to " + seconds + " s");
 		} catch (Exception e) {
-			Log.e(TAG,  key + " - Error on load()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setIdleTimeout()", e);
 			promise.reject(e);
 		}
 	}
 
-	private OnErrorListener createOnErrorListener(final Integer key) {
-		return new OnErrorListener() {
+	@ReactMethod
+	public void pause(final int key, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					pauseSound(key);
+					promise.resolve(null);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Paused");
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on pause()", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
+	private void pauseSound(final int key) {
+		this.sprites.unwatch(key);
+		if (this.isPoolKey(key)) this.soundPoolEngine.pause(key);
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) pcmPlayer.pause();
+		PlayerEntry entry = this.registry.get(key);
+		if (entry != null) entry.pause();
+		this.syncClock(key);
+	}
+
+	@ReactMethod
+	public void stop(final int key, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					stopSound(key);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Stopped");
+					promise.resolve(null);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on stop()", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
+	private void stopSound(final int key) {
+		this.sprites.unwatch(key);
+		this.fader.cancel(key);
+		if (this.isPoolKey(key)) this.soundPoolEngine.stop(key);
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) pcmPlayer.stop();
+		PlayerEntry entry = this.registry.get(key);
+		if (entry != null) entry.stop();
+		this.syncClock(key);
+	}
+
+	@ReactMethod
+	public void reset(final int key, final Promise promise) {
+		this.workers.post(key, new Runnable() {
 			@Override
-			public synchronized boolean onError(MediaPlayer mediaPlayer, int what, int extra) {
-				Log.e(TAG, key + " - Error. What: " + what + " extra: " + extra);
-				WritableMap errorMap = Arguments.createMap();
-				errorMap.putInt("what", what);
-				errorMap.putInt("extra", extra);
+			public void run() {
 				try {
-					Callback onError = errorCallbackPool.get(key);
-					if (onError != null) onError.invoke(errorMap);
-					else Log.e(TAG, "OnErrorListener(): no on errror callback found for key " + key);
+					resetSound(key);
+					promise.resolve(null);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Resetted");
 				} catch (Exception e) {
-					Log.e(TAG, "OnErrorListener(): onError callback already dispatched!", e);
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on reset()", e);
+					promise.reject(e);
 				}
-				return true; //Return true if the error has been handled
 			}
-		};
+		});
+	}
+
+	private void resetSound(final int key) {
+		this.sprites.unwatch(key);
+		this.fader.cancel(key);
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) pcmPlayer.stop();
+		this.playbackQueue.onInvalidated(key);
+		PlayerEntry entry = this.registry.get(key);
+		if (entry != null) entry.reset();
+		this.syncClock(key);
 	}
 
-	private OnPreparedListener createOnPreparedListener(final Integer key, final Promise promise) {
-		return new OnPreparedListener() {
+	@ReactMethod
+	public void release(final int key, final Promise promise) {
+		this.workers.post(key, new Runnable() {
 			@Override
-			public synchronized void onPrepared(MediaPlayer mediaPlayer) {
+			public void run() {
+				boolean traced = SoundTrace.begin(SoundTrace.RELEASE);
 				try {
-					WritableMap map = Arguments.createMap();
-					map.putInt("duration", mediaPlayer.getDuration());
-					promise.resolve(map);
-					Log.d(TAG, key + " - Prepared completed!");
+					releaseSound(key);
+					promise.resolve(null);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Released!");
 				} catch (Exception e) {
-					Log.e(TAG, key + " - Error on OnPreparedListener()", e);
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on release()", e);
 					promise.reject(e);
+				} finally {
+					SoundTrace.end(traced);
 				}
 			}
-		};
+		});
 	}
 
-	private void applyAudioOptions(final MediaPlayer mediaPlayer, final ReadableMap options) {
-		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
-			mediaPlayer.setAudioStreamType(getAudioStreamType(options));
-		} else {
-			mediaPlayer.setAudioAttributes((AudioAttributes) getAudioAttributes(options));
+	private void releaseSound(final int key) {
+		this.preloadScheduler.cancel(key);
+		this.fader.cancel(key);
+		this.sprites.remove(key);
+		this.playbackQueue.remove(key);
+		this.progressTicker.remove(key);
+		this.clock.remove(key);
+		this.groups.remove(key);
+		if (this.isPoolKey(key)) this.soundPoolEngine.unload(key);
+		if (this.pcmEngine != null) this.pcmEngine.unload(key);
+		PlayerEntry entry = this.registry.remove(key);
+		if (entry != null) {
+			SoundPlayer player = entry.release();
+			if (player != null) this.idlePlayerPool.recycle(player);
+			this.metrics.onPlayerCounts(this.registry.size(), this.idlePlayerPool.size());
 		}
 	}
 
-	private Object getAudioAttributes(final ReadableMap options) {
-		return new AudioAttributes.Builder()
-			.setUsage(useAlarmChannel(options) ? AudioAttributes.USAGE_ALARM : AudioAttributes.USAGE_MEDIA)
-			.setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
-			.build();
-	}
-
-	private boolean useAlarmChannel(final ReadableMap options) {
-		return options.hasKey("useAlarmChannel") ? options.getBoolean("useAlarmChannel") : false;
+	@ReactMethod
+	public void setVolume(final int key, final Float left, final Float right, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					fader.cancel(key);
+					setSoundVolume(key, left, right);
+					promise.resolve(null);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Set volume - Left: " + left.toString() + ", Right: " + right.toString());
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setVolume()", e);
+					promise.reject(e);
+				}
+			}
+		});
 	}
 
-	private int getAudioStreamType(final ReadableMap options) {
-		if (useAlarmChannel(options)) return AudioManager.STREAM_ALARM;
-		return AudioManager.STREAM_MUSIC;
+	/**
+	* Sets the own volume of the key, multiplied by the gain of its group if it has one
+	*/
+	private void setSoundVolume(final int key, final float left, final float right) {
+		float gain = this.groups.setVolume(key, left, right);
+		this.applySoundVolume(key, left * gain, right * gain);
 	}
 
-	private void setMediaPlayerDataSource(final MediaPlayer mediaPlayer, final String dataSource) throws Exception {
-		if (this.isBundledResource(dataSource)) this.setDataSourceFromUri(mediaPlayer, dataSource);
-		else if (dataSource.startsWith("asset:/")) this.setDataSourceFromAsset(mediaPlayer, dataSource);
-		else if (dataSource.matches("^(https?)://.*$")) this.setDataSourceFromNetwork(mediaPlayer, dataSource);
-		else this.setDataSourceFromFile(mediaPlayer, dataSource);
+	private void applySoundVolume(final int key, final float left, final float right) {
+		if (this.isPoolKey(key)) this.soundPoolEngine.setVolume(key, left, right);
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) pcmPlayer.setVolume(left, right);
+		PlayerEntry entry = this.registry.get(key);
+		if (entry != null) entry.setVolume(left, right);
 	}
 
-	private boolean isBundledResource(final String fileName) {
-		int resId = this.context.getResources().getIdentifier(fileName, "raw", this.context.getPackageName());
-		return resId != 0;
+	/**
+	* Fades the key to the volume in one call. Options are { curve?, onEnd? }: curve is "linear" (default), "easeIn",
+	* "easeOut" or "equalPower", and onEnd "stop" or "release". Resolves true if the fade completed, false if interrupted.
+	*/
+	@ReactMethod
+	public void fadeTo(final int key, final Float volume, final int durationMs, final ReadableMap options, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					fader.start(key, volume, durationMs, getFadeCurve(options, SoundFader.CURVE_LINEAR), getFadeEnd(options, SoundFader.END_NONE), promise);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Fading to " + volume + " over " + durationMs + " ms");
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on fadeTo()", e);
+					promise.reject(e);
+				}
+			}
+		});
 	}
 
-	private void setDataSourceFromUri(final MediaPlayer mediaPlayer, final String fileName) throws Exception {
-		Uri uri = Uri.parse("android.resource://" + this.context.getPackageName() + "/raw/" + fileName);
-		mediaPlayer.setDataSource(this.context, uri);
+	/**
+	* Fades fromKey out and toKey in over the same duration, starting toKey from silence if it is not playing.
+	* Options are { curve?, volume?, onEnd? }: curve defaults to "equalPower", volume of toKey to 1, and onEnd of fromKey to "stop".
+	* Resolves true once both fades completed.
+	*/
+	@ReactMethod
+	public void crossfade(final int fromKey, final int toKey, final int durationMs, final ReadableMap options, final Promise promise) {
+		final int curve = getFadeCurve(options, SoundFader.CURVE_EQUAL_POWER);
+		final float volume = options.hasKey("volume") ? (float) options.getDouble("volume") : 1;
+		final Promise fades = this.joinFades(promise);
+		this.workers.post(fromKey, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					fader.start(fromKey, 0, durationMs, curve, getFadeEnd(options, SoundFader.END_STOP), fades);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on crossfade()", e);
+					fades.reject(e);
+				}
+			}
+		});
+		this.workers.post(toKey, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (!isSoundPlaying(toKey)) {
+						fader.cancel(toKey);
+						setSoundVolume(toKey, 0, 0);
+						playSound(toKey);
+					}
+					fader.start(toKey, volume, durationMs, curve, SoundFader.END_NONE, fades);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on crossfade()", e);
+					fades.reject(e);
+				}
+			}
+		});
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Crossfading " + fromKey + " to " + toKey + " over " + durationMs + " ms");
 	}
 
-	private void setDataSourceFromAsset(final MediaPlayer mediaPlayer, final String fileName) throws Exception {
-		AssetFileDescriptor desc = this.context.getAssets().openFd(fileName.replace("asset:/", ""));
-		mediaPlayer.setDataSource(desc.getFileDescriptor(), desc.getStartOffset(), desc.getLength());
-		desc.close();
+	/**
+	* Returns a promise for the two fades of a crossfade that settles the given one once both ended
+	*/
+	private Promise joinFades(final Promise promise) {
+		final AtomicInteger remaining = new AtomicInteger(2);
+		final AtomicBoolean completed = new AtomicBoolean(true);
+		return new PromiseImpl(new Callback() {
+			@Override
+			public void invoke(Object... args) {
+				if (args.length == 0 || !Boolean.TRUE.equals(args[0])) completed.set(false);
+				if (remaining.decrementAndGet() == 0) promise.resolve(completed.get());
+			}
+		}, new Callback() {
+			@Override
+			public void invoke(Object... args) {
+				if (remaining.getAndSet(0) > 0) promise.reject("E_CROSSFADE", "Crossfade failed");
+			}
+		});
 	}
 
-	private void setDataSourceFromNetwork(final MediaPlayer mediaPlayer, final String url) throws Exception {
-		mediaPlayer.setDataSource(url);
+	private static int getFadeCurve(final ReadableMap options, final int fallback) {
+		return options.hasKey("curve") ? SoundFader.parseCurve(options.getString("curve")) : fallback;
 	}
 
-	private void setDataSourceFromFile(final MediaPlayer mediaPlayer, final String fileName) throws Exception {
-		File file = new File(fileName);
-		if (file.exists()) {
-			Uri uri = Uri.fromFile(file);
-			mediaPlayer.setDataSource(this.context, uri);
-		} else {
-			throw new Exception("File does not exist with name: " + fileName);
-		}
+	private static int getFadeEnd(final ReadableMap options, final int fallback) {
+		return options.hasKey("onEnd") ? SoundFader.parseEnd(options.getString("onEnd")) : fallback;
 	}
 
+	/**
+	* Only keys loaded with the pcm or mixer engines can be panned
+	*/
 	@ReactMethod
-	public void setOnCompletionListener(final Integer key, final Callback onComplete) {
-		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player != null && !player.isPlaying()) {
-				player.setOnCompletionListener(this.createOnCompletionListener(key, onComplete));
-			}
-			Log.d(TAG, key + " - Set OnCompletion listener");
-		} catch (Exception e) {
-			Log.e(TAG, "Error on setOnCompletionListener()", e);
-		}
-	}
-
-	private OnCompletionListener createOnCompletionListener(final Integer key, final Callback callback) {
-		return new OnCompletionListener() {
+	public void setPan(final int key, final Float pan, final Promise promise) {
+		this.workers.post(key, new Runnable() {
 			@Override
-			public synchronized void onCompletion(MediaPlayer mediaPlayer) {
-				if (!mediaPlayer.isLooping()) {
-					try {
-						callback.invoke();
-						Log.d(TAG, key + " - Playing complete!");
-					} catch (Exception e) {
-						Log.e(TAG, "The on completion callback was already invoked", e);
-					}
+			public void run() {
+				try {
+					PcmSound pcmPlayer = getPcmPlayer(key);
+					if (pcmPlayer != null) pcmPlayer.setPan(pan);
+					else if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Pan is only supported by the pcm and mixer engines");
+					promise.resolve(null);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setPan()", e);
+					promise.reject(e);
 				}
 			}
-		};
+		});
 	}
 
+	/**
+	* Sets the gain of a group. Members are only updated when the gain actually changes.
+	*/
 	@ReactMethod
-	public void play(final Integer key, final Promise promise) {
+	public void setGroupVolume(final String group, final Float volume, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player == null) {
-				promise.reject(new Exception("Undefined player"));
+			if (!this.groups.setGain(group, volume)) {
+				promise.resolve(null);
 				return;
-			} else if (!player.isPlaying()) {
-				player.start();
 			}
-			promise.resolve(null);
-			Log.d(TAG, key + " - Started playing...");
+			this.runOnKeys(this.groups.getKeys(group), "setGroupVolume", new KeyAction() {
+				@Override
+				public void run(int key) {
+					float[] own = groups.getVolume(key);
+					if (own != null) setSoundVolume(key, own[0], own[1]);
+				}
+			}, promise);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set volume of group " + group + " to " + volume);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on play()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setGroupVolume()", e);
 			promise.reject(e);
 		}
 	}
 
+	/**
+	* Pauses the playing members of a group and remembers them for resumeGroup()
+	*/
 	@ReactMethod
-	public void pause(final Integer key, final Promise promise) {
+	public void pauseGroup(final String group, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player != null && player.isPlaying()) player.pause();
-			promise.resolve(null);
-			Log.d(TAG, key + " - Paused");
+			this.runOnKeys(this.groups.getKeys(group), "pauseGroup", new KeyAction() {
+				@Override
+				public void run(int key) {
+					if (!isSoundPlaying(key)) return;
+					pauseSound(key);
+					groups.markPaused(group, key);
+				}
+			}, promise);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on pause()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on pauseGroup()", e);
 			promise.reject(e);
 		}
 	}
 
 	@ReactMethod
-	public void stop(final Integer key, final Promise promise) {
+	public void resumeGroup(final String group, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player != null && player.isPlaying()) {
-				player.pause();
-				player.seekTo(0);
-			}
-			Log.d(TAG, key + " - Stopped");
-			promise.resolve(null);
+			this.runOnKeys(this.groups.takePaused(group), "resumeGroup", new KeyAction() {
+				@Override
+				public void run(int key) throws Exception {
+					playSound(key);
+				}
+			}, promise);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on stop()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on resumeGroup()", e);
 			promise.reject(e);
 		}
 	}
 
 	@ReactMethod
-	public void reset(final Integer key, final Promise promise) {
+	public void stopGroup(final String group, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player != null) player.reset();
-			promise.resolve(null);
-			Log.d(TAG, key + " - Resetted");
+			this.groups.takePaused(group);
+			this.runOnKeys(this.groups.getKeys(group), "stopGroup", new KeyAction() {
+				@Override
+				public void run(int key) {
+					stopSound(key);
+				}
+			}, promise);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on reset()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on stopGroup()", e);
 			promise.reject(e);
 		}
 	}
 
 	@ReactMethod
-	public void release(final Integer key, final Promise promise) {
+	public void releaseGroup(final String group, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player != null) {
-				player.setOnCompletionListener(null);
-				player.setOnPreparedListener(null);
-				player.setOnErrorListener(null);
-				player.release();
-				this.playerPool.remove(key);
-			}
-			promise.resolve(null);
-			Log.d(TAG, key + " - Released!");
+			this.runOnKeys(this.groups.getKeys(group), "releaseGroup", new KeyAction() {
+				@Override
+				public void run(int key) {
+					releaseSound(key);
+				}
+			}, promise);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on release()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on releaseGroup()", e);
 			promise.reject(e);
 		}
 	}
 
+	/**
+	* Runs the action for every key on its worker and resolves the promise, if any, once all of them ran.
+	* Failures are logged per key.
+	*/
+	private void runOnKeys(final int[] keys, final String operation, final KeyAction action, final Promise promise) {
+		if (keys.length == 0) {
+			if (promise != null) promise.resolve(null);
+			return;
+		}
+		final AtomicInteger remaining = new AtomicInteger(keys.length);
+		for (final int key : keys) {
+			this.workers.post(key, new Runnable() {
+				@Override
+				public void run() {
+					try {
+						action.run(key);
+					} catch (Exception e) {
+						if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, key + " - Error on " + operation + "()", e);
+					}
+					if (remaining.decrementAndGet() == 0 && promise != null) promise.resolve(null);
+				}
+			});
+		}
+	}
+
 	@ReactMethod
-	public void setVolume(final Integer key, final Float left, final Float right, final Promise promise) {
+	public void getSystemVolume(final ReadableMap options, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player != null) player.setVolume(left, right);
-			promise.resolve(null);
-			Log.d(TAG, key + " - Set volume - Left: " + left.toString() + ", Right: " + right.toString());
+			promise.resolve(this.getSystemVolumeValue(options));
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Get system volume");
 		} catch (Exception e) {
-			Log.e(TAG, "Error on setVolume()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on getSystemVolume()", e);
 			promise.reject(e);
 		}
 	}
 
-	@ReactMethod
-	public void getSystemVolume(final ReadableMap options, final Promise promise) {
+	@ReactMethod(isBlockingSynchronousMethod = true)
+	public double getSystemVolumeSync(final ReadableMap options) {
 		try {
-			AudioManager audio = (AudioManager) this.context.getSystemService(Context.AUDIO_SERVICE);
-			int channel = this.getAudioStreamType(options);
-			int streamVolume = audio.getStreamVolume(channel);
-			int streamMaxVolume = audio.getStreamMaxVolume(channel);
-			float volume = (float) streamVolume / streamMaxVolume;
-			promise.resolve(volume);
-			Log.d(TAG, "Get system volume");
+			return this.getSystemVolumeValue(options);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on getSystemVolume()", e);
-			promise.reject(e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on getSystemVolumeSync()", e);
+			return -1;
 		}
 	}
 
+	private float getSystemVolumeValue(final ReadableMap options) {
+		return this.systemVolume.get(this.getAudioStreamType(options));
+	}
+
 	@ReactMethod
 	public void setSystemVolume(final Float value, final ReadableMap options, final Promise promise) {
 		try {
@@ -318,10 +1562,11 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 			int channel = this.getAudioStreamType(options);
 			int volume = Math.round(audioManager.getStreamMaxVolume(channel) * value);
 			audioManager.setStreamVolume(channel, volume, 0);
+			this.systemVolume.invalidate();
 			promise.resolve(null);
-			Log.d(TAG, "Set system volume to: " + volume);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set system volume to: " + volume);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on setSystemVolume()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setSystemVolume()", e);
 			promise.reject(e);
 		}
 	}
@@ -337,9 +1582,9 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 				activity.setVolumeControlStream(channel);
 				promise.resolve(null);
 			}
-			Log.d(TAG, "Set volume control stream");
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set volume control stream");
 		} catch (Exception e) {
-			Log.e(TAG, "Error on setVolumeControlStream()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setVolumeControlStream()", e);
 			promise.reject(e);
 		}
 	}
@@ -354,9 +1599,9 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 				activity.setVolumeControlStream(AudioManager.USE_DEFAULT_STREAM_TYPE);
 				promise.resolve(null);
 			}
-			Log.d(TAG, "Reset volume control stream");
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Reset volume control stream");
 		} catch (Exception e) {
-			Log.e(TAG, "Error on resetVolumeControlStream()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on resetVolumeControlStream()", e);
 			promise.reject(e);
 		}
 	}
@@ -383,9 +1628,9 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 				else if (result == AudioManager.AUDIOFOCUS_REQUEST_DELAYED) promise.resolve("delayed");
 				else promise.resolve("failed");
 			}
-			Log.d(TAG, "Request audio focus");
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Request audio focus");
 		} catch (Exception e) {
-			Log.e(TAG, "Error on requestAudioFocus()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on requestAudioFocus()", e);
 			promise.reject(e);
 		}
 	}
@@ -411,12 +1656,13 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 					else if (code == AudioManager.AUDIOFOCUS_LOSS) focusType = "loss";
 					else if (code == AudioManager.AUDIOFOCUS_LOSS_TRANSIENT) focusType = "lossTransient";
 					else if (code == AudioManager.AUDIOFOCUS_LOSS_TRANSIENT_CAN_DUCK) focusType = "lossTransientCanDuck";
+					applyFocusPolicy(code);
 					try {
 						context
 							.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
 							.emit(AUDIO_FOCUS_EVENT, focusType);
 					} catch (Exception e) {
-						Log.e(TAG, "Error emitting focus event", e);
+						if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error emitting focus event", e);
 					}
 				}
 			};
@@ -424,6 +1670,62 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 		return this.afChangeListener;
 	}
 
+	@ReactMethod
+	public void setAudioFocusPolicy(final ReadableMap options, final Promise promise) {
+		try {
+			this.focusPolicy.configure(options);
+			promise.resolve(null);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set audio focus policy");
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setAudioFocusPolicy()", e);
+			promise.reject(e);
+		}
+	}
+
+	/**
+	* Ducks or pauses every sound on focus loss as configured, and restores the volume and resumes on regain
+	*/
+	private void applyFocusPolicy(final int code) {
+		if (code == AudioManager.AUDIOFOCUS_GAIN) {
+			this.setMasterGain(1);
+			if (this.focusPolicy.shouldResumeOnGain()) {
+				this.runOnKeys(this.focusPolicy.takePaused(), "resume on focus gain", new KeyAction() {
+					@Override
+					public void run(int key) throws Exception {
+						playSound(key);
+					}
+				}, null);
+			} else {
+				this.focusPolicy.takePaused();
+			}
+			return;
+		}
+		int action = this.focusPolicy.getAction(code);
+		if (action == FocusPolicy.DUCK) {
+			this.setMasterGain(this.focusPolicy.getDuckVolume());
+		} else if (action == FocusPolicy.PAUSE) {
+			this.runOnKeys(this.groups.getAllKeys(), "pause on focus loss", new KeyAction() {
+				@Override
+				public void run(int key) {
+					if (!isSoundPlaying(key)) return;
+					pauseSound(key);
+					focusPolicy.markPaused(key);
+				}
+			}, null);
+		}
+	}
+
+	private void setMasterGain(final float gain) {
+		if (!this.groups.setMasterGain(gain)) return;
+		this.runOnKeys(this.groups.getAllKeys(), "setMasterGain", new KeyAction() {
+			@Override
+			public void run(int key) {
+				float[] own = groups.getVolume(key);
+				if (own != null) setSoundVolume(key, own[0], own[1]);
+			}
+		}, null);
+	}
+
 	@ReactMethod
 	public void abandonAudioFocus(final Promise promise) {
 		try {
@@ -434,96 +1736,339 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 				audioManager.abandonAudioFocusRequest(this.focusRequest);
 			}
 			promise.resolve(null);
-			Log.d(TAG, "Abandon audio focus");
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Abandon audio focus");
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on abandonAudioFocus()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void setLooping(final int key, final boolean looping, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					setSoundLooping(key, looping);
+					promise.resolve(null);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Set looping to " + looping);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setLooping()", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
+	private void setSoundLooping(final int key, final boolean looping) {
+		if (this.isPoolKey(key)) this.soundPoolEngine.setLooping(key, looping);
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) pcmPlayer.setLooping(looping);
+		PlayerEntry entry = this.registry.get(key);
+		if (entry != null) entry.setLooping(looping);
+		this.clock.setLooping(key, looping);
+	}
+
+	@ReactMethod
+	public void setSpeed(final int key, final Float speed, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					setSoundSpeed(key, speed);
+					promise.resolve(null);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Set speed to " + speed.toString());
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setSpeed()", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
+	private void setSoundSpeed(final int key, final float speed) {
+		if (this.isPoolKey(key)) this.soundPoolEngine.setSpeed(key, speed);
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) pcmPlayer.setSpeed(speed);
+		PlayerEntry entry = this.registry.get(key);
+		if (entry != null) entry.setSpeed(speed);
+		this.clock.setSpeed(key, speed);
+	}
+
+	@ReactMethod
+	public void setCurrentMillis(final int key, final int ms, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					setSoundCurrentMillis(key, ms);
+					promise.resolve(null);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Set current millis to: " + Integer.toString(ms));
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setCurrentMillis()", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
+	private void setSoundCurrentMillis(final int key, final int ms) {
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) pcmPlayer.seekTo(ms);
+		PlayerEntry entry = this.registry.get(key);
+		if (entry != null) entry.seekTo(ms);
+		this.progressTicker.wake();
+		this.syncClock(key);
+	}
+
+	@ReactMethod
+	public void getCurrentMillis(final int key, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					promise.resolve(getSoundCurrentMillis(key));
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Get current millis");
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on getCurrentMillis()", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
+	private int getSoundCurrentMillis(final int key) {
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) return pcmPlayer.getCurrentMillis();
+		PlayerEntry entry = this.registry.get(key);
+		return entry != null ? entry.getCurrentPosition() : -1;
+	}
+
+	/**
+	* Returns the position from the native snapshot without a bridge round trip or a call into the player
+	*/
+	@ReactMethod(isBlockingSynchronousMethod = true)
+	public double getCurrentMillisSync(final int key) {
+		return this.clock.getPosition(key);
+	}
+
+	@ReactMethod(isBlockingSynchronousMethod = true)
+	public boolean isPlayingSync(final int key) {
+		return this.clock.isPlaying(key);
+	}
+
+	@ReactMethod
+	public void isPlaying(final int key, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					promise.resolve(isSoundPlaying(key));
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - isPlaying");
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on isPlaying()", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
+	private boolean isSoundPlaying(final int key) {
+		if (this.isPoolKey(key)) return this.soundPoolEngine.isPlaying(key);
+		PcmSound pcmPlayer = this.getPcmPlayer(key);
+		if (pcmPlayer != null) return pcmPlayer.isPlaying();
+		PlayerEntry entry = this.registry.get(key);
+		return entry != null ? entry.isPlaying() : false;
+	}
+
+	@ReactMethod
+	public void getMetrics(final Promise promise) {
+		try {
+			this.metrics.onPlayerCounts(this.registry.size(), this.idlePlayerPool.size());
+			promise.resolve(this.metrics.toMap());
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on getMetrics()", e);
+			promise.reject(e);
+		}
+	}
+
+	@ReactMethod
+	public void resetMetrics(final Promise promise) {
+		try {
+			this.metrics.reset();
+			promise.resolve(null);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on abandonAudioFocus()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on resetMetrics()", e);
 			promise.reject(e);
 		}
 	}
 
 	@ReactMethod
-	public void setLooping(final Integer key, final boolean looping, final Promise promise) {
+	public void setMetricsInterval(final int intervalMs, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player != null) player.setLooping(looping);
+			this.metrics.setInterval(intervalMs);
 			promise.resolve(null);
-			Log.d(TAG, key + " - Set looping to " + looping);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set metrics interval to " + intervalMs);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on setLooping()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setMetricsInterval()", e);
 			promise.reject(e);
 		}
 	}
 
+	/**
+	* Sets the native log level using android.util.Log priorities. Use LogLevels.none to disable logging.
+	*/
 	@ReactMethod
-	public void setSpeed(final Integer key, final Float speed, final Promise promise) {
+	public void setLogLevel(final int level, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player != null) player.setPlaybackParams(player.getPlaybackParams().setSpeed(speed));
+			SoundLog.setLevel(level);
 			promise.resolve(null);
-			Log.d(TAG, key + " - Set speed to " + speed.toString());
 		} catch (Exception e) {
-			Log.e(TAG, "Error on setSpeed()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setLogLevel()", e);
 			promise.reject(e);
 		}
 	}
 
 	@ReactMethod
-	public void setCurrentMillis(final Integer key, final int ms, final Promise promise) {
+	public void setTraceEnabled(final boolean enabled, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player != null) player.seekTo(ms);
+			SoundTrace.setEnabled(enabled);
 			promise.resolve(null);
-			Log.d(TAG, key + " - Set current millis to: " + Integer.toString(ms));
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set trace enabled to " + enabled);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on setCurrentMillis()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setTraceEnabled()", e);
 			promise.reject(e);
 		}
 	}
 
 	@ReactMethod
-	public void getCurrentMillis(final Integer key, final Promise promise) {
+	public void setProgressInterval(final int intervalMs, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			int ms = player != null ? player.getCurrentPosition() : -1;
-			promise.resolve(ms);
-			Log.d(TAG, key + " - Get current millis");
+			this.progressTicker.setInterval(intervalMs);
+			promise.resolve(null);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set progress interval to " + intervalMs);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on getCurrentMillis()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setProgressInterval()", e);
 			promise.reject(e);
 		}
 	}
 
 	@ReactMethod
-	public void isPlaying(final Integer key, final Promise promise) {
+	public void setProgressEnabled(final boolean enabled, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			boolean isPlaying = player != null ? player.isPlaying() : false;
-			promise.resolve(isPlaying);
-			Log.d(TAG, key + " - isPlaying");
+			this.progressTicker.setGlobalEnabled(enabled);
+			promise.resolve(null);
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set progress events enabled to " + enabled);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on isPlaying()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setProgressEnabled()", e);
 			promise.reject(e);
 		}
 	}
 
 	@ReactMethod
-	public void setSpeakerphoneOn(final Integer key, final boolean speaker, final Promise promise) {
+	public void setKeyProgressEnabled(final int key, final boolean enabled, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					progressTicker.setEnabled(key, enabled);
+					promise.resolve(null);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Set progress events enabled to " + enabled);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setKeyProgressEnabled()", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
+	/**
+	* Applies a list of commands in one bridge call and resolves with one result per command.
+	* Each command runs on the worker of its key, so commands for one key keep their order.
+	* A failing command does not stop the rest of the batch.
+	*/
+	@ReactMethod
+	public void executeBatch(final ReadableArray ops, final Promise promise) {
 		try {
-			MediaPlayer player = this.playerPool.get(key);
-			if (player != null) {
-				player.setAudioStreamType(AudioManager.STREAM_MUSIC);
-				AudioManager audioManager = (AudioManager) this.context.getSystemService(Context.AUDIO_SERVICE);
-				audioManager.setMode(AudioManager.MODE_IN_COMMUNICATION);
-				audioManager.setSpeakerphoneOn(speaker);
-				Log.d(TAG, key + " - Set speakerphone to: " + speaker);
+			final int size = ops.size();
+			if (size == 0) {
+				promise.resolve(Arguments.createArray());
+				return;
+			}
+			final WritableMap[] results = new WritableMap[size];
+			final AtomicInteger remaining = new AtomicInteger(size);
+			for (int i = 0; i < size; i++) {
+				final int index = i;
+				final ReadableMap op = ops.getMap(i);
+				this.workers.post(op.hasKey("key") ? op.getInt("key") : 0, new Runnable() {
+					@Override
+					public void run() {
+						results[index] = executeBatchOp(op);
+						if (remaining.decrementAndGet() > 0) return;
+						WritableArray array = Arguments.createArray();
+						for (WritableMap result : results) array.pushMap(result);
+						promise.resolve(array);
+						if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Executed batch of " + size + " ops");
+					}
+				});
 			}
-			promise.resolve(null);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on setSpeakerphoneOn()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on executeBatch()", e);
 			promise.reject(e);
 		}
 	}
 
+	private WritableMap executeBatchOp(final ReadableMap op) {
+		WritableMap result = Arguments.createMap();
+		try {
+			String type = op.getString("type");
+			int key = op.getInt("key");
+			switch (type) {
+				case "play": this.playSound(key); break;
+				case "pause": this.pauseSound(key); break;
+				case "stop": this.stopSound(key); break;
+				case "reset": this.resetSound(key); break;
+				case "release": this.releaseSound(key); break;
+				case "setVolume": this.setSoundVolume(key, (float) op.getDouble("left"), (float) op.getDouble("right")); break;
+				case "setLooping": this.setSoundLooping(key, op.getBoolean("looping")); break;
+				case "setSpeed": this.setSoundSpeed(key, (float) op.getDouble("speed")); break;
+				case "setCurrentMillis": this.setSoundCurrentMillis(key, op.getInt("ms")); break;
+				case "getCurrentMillis": result.putInt("value", this.getSoundCurrentMillis(key)); break;
+				case "isPlaying": result.putBoolean("value", this.isSoundPlaying(key)); break;
+				default: throw new Exception("Unknown batch op: " + type);
+			}
+			result.putBoolean("ok", true);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on batch op", e);
+			result.putBoolean("ok", false);
+			result.putString("error", e.getMessage());
+		}
+		return result;
+	}
+
+	@ReactMethod
+	public void setSpeakerphoneOn(final int key, final boolean speaker, final Promise promise) {
+		this.workers.post(key, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					SoundPlayer player = getPlayer(key);
+					if (player != null) {
+						player.setAudioStreamType(AudioManager.STREAM_MUSIC);
+						AudioManager audioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
+						audioManager.setMode(AudioManager.MODE_IN_COMMUNICATION);
+						audioManager.setSpeakerphoneOn(speaker);
+						if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, key + " - Set speakerphone to: " + speaker);
+					}
+					promise.resolve(null);
+				} catch (Exception e) {
+					if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setSpeakerphoneOn()", e);
+					promise.reject(e);
+				}
+			}
+		});
+	}
+
 	@ReactMethod
 	public void setMute(final boolean isMute, final Promise promise) {
 		try {
@@ -534,10 +2079,11 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 			} else {
 				audioManager.setStreamMute(AudioManager.STREAM_MUSIC, isMute);
 			}
-			Log.d(TAG, "Set mute to: " + isMute);
+			this.systemVolume.invalidate();
+			if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Set mute to: " + isMute);
 			promise.resolve(null);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on setMute()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on setMute()", e);
 			promise.reject(e);
 		}
 	}
@@ -552,7 +2098,7 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 			}
 			promise.resolve(filterStatus);
 		} catch (Exception e) {
-			Log.e(TAG, "Error on getCurrentInterruptionFilter()", e);
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error on getCurrentInterruptionFilter()", e);
 			promise.reject(e);
 		}
 	}
@@ -566,6 +2112,15 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 	public Map<String, Object> getConstants() {
 		final Map<String, Object> constants = new HashMap<>();
 		constants.put("IsAndroid", true);
+		constants.put("LogLevel", SoundLog.getLevel());
+		final Map<String, Object> logLevels = new HashMap<>();
+		logLevels.put("verbose", Log.VERBOSE);
+		logLevels.put("debug", Log.DEBUG);
+		logLevels.put("info", Log.INFO);
+		logLevels.put("warn", Log.WARN);
+		logLevels.put("error", Log.ERROR);
+		logLevels.put("none", SoundLog.NONE);
+		constants.put("LogLevels", logLevels);
 		return constants;
 	}
 
@@ -575,23 +2130,49 @@ public class RNSoundModule extends ReactContextBaseJavaModule {
 	@Override
 	public void onCatalystInstanceDestroy() {
 		super.onCatalystInstanceDestroy();
+		this.context.unregisterComponentCallbacks(this.reclaimer);
+		this.reclaimer.release();
+		this.progressTicker.release();
+		this.preloadScheduler.release();
+		this.playbackQueue.release();
+		this.metrics.release();
+		this.systemVolume.release();
 
-		Set<Map.Entry<Integer, MediaPlayer>> entries = playerPool.entrySet();
-		for (Map.Entry<Integer, MediaPlayer> entry : entries) {
-			MediaPlayer player = entry.getValue();
-			if (player == null) continue;
-			try {
-				player.setOnCompletionListener(null);
-				player.setOnPreparedListener(null);
-				player.setOnErrorListener(null);
-				if (player.isPlaying()) player.stop();
-				player.reset();
-				player.release();
-			} catch (Exception exception) {
-				Log.e(TAG, "Exception when closing audios during app exit. ", exception);
-			}
+		for (final PlayerEntry entry : this.registry.removeAll()) {
+			this.workers.post(entry.key, new Runnable() {
+				@Override
+				public void run() {
+					SoundPlayer player = entry.release();
+					if (player == null) return;
+					try {
+						player.setListener(null);
+						if (player.isPlaying()) player.stop();
+						player.reset();
+						player.release();
+					} catch (Exception exception) {
+						if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Exception when closing audios during app exit. ", exception);
+					}
+				}
+			});
+		}
+		this.workers.release();
+		this.fader.clear();
+		this.scheduler.release();
+		this.sprites.clear();
+		this.peakExecutor.shutdownNow();
+		this.metadataIndex.release();
+		this.clock.clear();
+		this.groups.clear();
+		this.idlePlayerPool.release();
+
+		if (this.soundPoolEngine != null) {
+			this.soundPoolEngine.release();
+			this.soundPoolEngine = null;
+		}
+		if (this.pcmEngine != null) {
+			this.pcmEngine.release();
+			this.pcmEngine = null;
 		}
-		entries.clear();
 	}
 
 }
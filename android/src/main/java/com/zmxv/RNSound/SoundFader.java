@@ -0,0 +1,236 @@
+package com.zmxv.RNSound;
+
+import android.media.VolumeShaper;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.SparseArray;
+
+import com.facebook.react.bridge.Promise;
+
+/**
+* Native volume fades, so a fade costs one bridge call instead of a JS timer calling setVolume() every frame.
+* MediaPlayer keys fade with a VolumeShaper on API 26+. Everything else is ramped in small steps on the worker of the key.
+* A fade resolves true when it completes and false when it is replaced, cancelled by setVolume(), stopped or released.
+*/
+class SoundFader {
+
+	private static final String TAG = "RNSoundFader";
+	private static final long STEP_MS = 16;
+	private static final int SHAPER_POINTS = 16;
+
+	static final int CURVE_LINEAR = 0;
+	static final int CURVE_EASE_IN = 1;
+	static final int CURVE_EASE_OUT = 2;
+	static final int CURVE_EQUAL_POWER = 3;
+
+	static final int END_NONE = 0;
+	static final int END_STOP = 1;
+	static final int END_RELEASE = 2;
+
+	interface Host {
+		float[] getVolume(int key);
+		void setVolume(int key, float left, float right);
+		SoundPlayer getPlayer(int key);
+		void onFadeEnd(int key, int action) throws Exception;
+	}
+
+	private class Fade implements Runnable {
+		final int key;
+		final float fromLeft;
+		final float fromRight;
+		final float to;
+		final long durationMs;
+		final int curve;
+		final int onEnd;
+		final Promise promise;
+		final long startedAt = SystemClock.elapsedRealtime();
+		VolumeShaper shaper;
+		float peak;
+
+		Fade(final int key, final float[] from, final float to, final long durationMs, final int curve, final int onEnd, final Promise promise) {
+			this.key = key;
+			this.fromLeft = from[0];
+			this.fromRight = from[1];
+			this.to = to;
+			this.durationMs = durationMs;
+			this.curve = curve;
+			this.onEnd = onEnd;
+			this.promise = promise;
+		}
+
+		@Override
+		public void run() {
+			step(this);
+		}
+	}
+
+	private final Host host;
+	private final SoundWorkers workers;
+	private final SparseArray<Fade> fades = new SparseArray<>();
+
+	SoundFader(final Host host, final SoundWorkers workers) {
+		this.host = host;
+		this.workers = workers;
+	}
+
+	/**
+	* Fades both channels of the key from their current volume to the given one. Must run on the worker of the key.
+	*/
+	void start(final int key, final float volume, final long durationMs, final int curve, final int onEnd, final Promise promise) throws Exception {
+		float[] from = this.host.getVolume(key);
+		if (from == null) throw new Exception("Undefined player");
+		this.cancel(key);
+		Fade fade = new Fade(key, from, Math.max(0, Math.min(1, volume)), durationMs, curve, onEnd, promise);
+		if (durationMs <= 0) {
+			this.finish(fade);
+			return;
+		}
+		synchronized (this) {
+			this.fades.put(key, fade);
+		}
+		if (this.startShaper(fade)) this.workers.postDelayed(key, fade, durationMs);
+		else this.workers.postDelayed(key, fade, STEP_MS);
+	}
+
+	/**
+	* Stops the fade of the key at its current volume. Must run on the worker of the key.
+	*/
+	void cancel(final int key) {
+		Fade fade;
+		synchronized (this) {
+			fade = this.fades.get(key);
+			if (fade == null) return;
+			this.fades.remove(key);
+		}
+		this.workers.remove(key, fade);
+		if (fade.shaper != null) {
+			try {
+				float volume = fade.peak * fade.shaper.getVolume();
+				this.host.setVolume(key, volume, volume);
+			} catch (Exception e) {
+				if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, key + " - Could not read the volume of the cancelled fade", e);
+			}
+			this.closeShaper(fade);
+		}
+		fade.promise.resolve(false);
+	}
+
+	/**
+	* Drops every fade without touching the players, on teardown
+	*/
+	synchronized void clear() {
+		for (int i = 0; i < this.fades.size(); i++) this.closeShaper(this.fades.valueAt(i));
+		this.fades.clear();
+	}
+
+	static int parseCurve(final String curve) {
+		if ("easeIn".equals(curve)) return CURVE_EASE_IN;
+		if ("easeOut".equals(curve)) return CURVE_EASE_OUT;
+		if ("equalPower".equals(curve)) return CURVE_EQUAL_POWER;
+		return CURVE_LINEAR;
+	}
+
+	static int parseEnd(final String onEnd) {
+		if ("stop".equals(onEnd)) return END_STOP;
+		if ("release".equals(onEnd)) return END_RELEASE;
+		return END_NONE;
+	}
+
+	private void step(final Fade fade) {
+		synchronized (this) {
+			if (this.fades.get(fade.key) != fade) return;
+		}
+		if (fade.shaper != null) {
+			this.finish(fade);
+			return;
+		}
+		float t = Math.min(1, (SystemClock.elapsedRealtime() - fade.startedAt) / (float) fade.durationMs);
+		if (t >= 1) {
+			this.finish(fade);
+			return;
+		}
+		this.host.setVolume(fade.key, interpolate(fade, fade.fromLeft, t), interpolate(fade, fade.fromRight, t));
+		this.workers.postDelayed(fade.key, fade, STEP_MS);
+	}
+
+	private void finish(final Fade fade) {
+		synchronized (this) {
+			if (this.fades.get(fade.key) == fade) this.fades.remove(fade.key);
+		}
+		this.host.setVolume(fade.key, fade.to, fade.to);
+		this.closeShaper(fade);
+		try {
+			this.host.onFadeEnd(fade.key, fade.onEnd);
+			fade.promise.resolve(true);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, fade.key + " - Error ending fade", e);
+			fade.promise.reject(e);
+		}
+	}
+
+	/**
+	* Hands the whole curve to a VolumeShaper, scaled to the loudest point so it stays within [0, 1], and raises the
+	* player volume to that point. Only for MediaPlayer keys on API 26+ whose channels share a volume.
+	*/
+	private boolean startShaper(final Fade fade) {
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O || fade.fromLeft != fade.fromRight) return false;
+		SoundPlayer player = this.host.getPlayer(fade.key);
+		float peak = Math.max(fade.fromLeft, fade.to);
+		if (player == null || peak <= 0) return false;
+		float[] times = new float[SHAPER_POINTS];
+		float[] volumes = new float[SHAPER_POINTS];
+		for (int i = 0; i < SHAPER_POINTS; i++) {
+			times[i] = i / (float) (SHAPER_POINTS - 1);
+			volumes[i] = interpolate(fade, fade.fromLeft, times[i]) / peak;
+		}
+		try {
+			VolumeShaper.Configuration configuration = new VolumeShaper.Configuration.Builder()
+				.setDuration(fade.durationMs)
+				.setCurve(times, volumes)
+				.setInterpolatorType(VolumeShaper.Configuration.INTERPOLATOR_TYPE_LINEAR)
+				.build();
+			VolumeShaper shaper = player.createVolumeShaper(configuration);
+			if (shaper == null) return false;
+			shaper.apply(VolumeShaper.Operation.PLAY);
+			fade.shaper = shaper;
+			fade.peak = peak;
+			this.host.setVolume(fade.key, peak, peak);
+			return true;
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, fade.key + " - VolumeShaper unavailable, ramping instead", e);
+			return false;
+		}
+	}
+
+	private void closeShaper(final Fade fade) {
+		if (fade.shaper == null) return;
+		try {
+			fade.shaper.close();
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, fade.key + " - Error closing VolumeShaper", e);
+		}
+		fade.shaper = null;
+	}
+
+	private static float interpolate(final Fade fade, final float from, final float t) {
+		return from + (fade.to - from) * shape(fade.curve, t, fade.to > from);
+	}
+
+	/**
+	* Maps the elapsed fraction to the fraction of the volume change. Equal power keeps a crossfade at constant loudness.
+	*/
+	private static float shape(final int curve, final float t, final boolean rising) {
+		switch (curve) {
+			case CURVE_EASE_IN:
+				return t * t;
+			case CURVE_EASE_OUT:
+				return 1 - (1 - t) * (1 - t);
+			case CURVE_EQUAL_POWER:
+				return (float) (rising ? Math.sin(t * Math.PI / 2) : 1 - Math.cos(t * Math.PI / 2));
+			default:
+				return t;
+		}
+	}
+
+}
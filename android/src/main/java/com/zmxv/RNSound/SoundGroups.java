@@ -0,0 +1,157 @@
+package com.zmxv.RNSound;
+
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+* Named groups (buses) of keys assigned at load(). The gain of a group and the master gain, used for ducking,
+* are multiplied into the volume of each key, so keys remember their own volume to be reapplied when a gain changes.
+*/
+class SoundGroups {
+
+	private static class Group {
+		float gain = 1;
+		final List<Integer> keys = new ArrayList<>();
+		final List<Integer> paused = new ArrayList<>();
+	}
+
+	private static class Member {
+		final String group;
+		float left = 1;
+		float right = 1;
+		boolean pending = true;
+
+		Member(final String group) {
+			this.group = group;
+		}
+	}
+
+	private final Map<String, Group> groups = new HashMap<>();
+	private final SparseArray<Member> members = new SparseArray<>();
+	private float masterGain = 1;
+
+	/**
+	* Registers a loaded key in the group, or in no group when group is null. Keeps the member state if the group is unchanged.
+	*/
+	synchronized void assign(final int key, final String group) {
+		Member existing = this.members.get(key);
+		if (existing != null && (group == null ? existing.group == null : group.equals(existing.group))) return;
+		this.remove(key);
+		this.members.put(key, new Member(group));
+		if (group == null) return;
+		Group target = this.groups.get(group);
+		if (target == null) {
+			target = new Group();
+			this.groups.put(group, target);
+		}
+		target.keys.add(key);
+	}
+
+	synchronized void remove(final int key) {
+		Member member = this.members.get(key);
+		if (member == null) return;
+		this.members.remove(key);
+		Group group = member.group != null ? this.groups.get(member.group) : null;
+		if (group == null) return;
+		group.keys.remove(Integer.valueOf(key));
+		group.paused.remove(Integer.valueOf(key));
+	}
+
+	/**
+	* Records the volume set for the key and returns the gain to multiply it by
+	*/
+	synchronized float setVolume(final int key, final float left, final float right) {
+		Member member = this.members.get(key);
+		if (member == null) return this.masterGain;
+		member.left = left;
+		member.right = right;
+		member.pending = false;
+		return this.getGain(member);
+	}
+
+	/**
+	* Returns the own volume of a key whose gain differs from 1 and was not applied yet, or null
+	*/
+	synchronized float[] takePendingVolume(final int key) {
+		Member member = this.members.get(key);
+		if (member == null || !member.pending || this.getGain(member) == 1) return null;
+		return new float[] { member.left, member.right };
+	}
+
+	synchronized float[] getVolume(final int key) {
+		Member member = this.members.get(key);
+		return member != null ? new float[] { member.left, member.right } : null;
+	}
+
+	/**
+	* Updates the gain of the group. Returns false if it did not change, so members need no update.
+	*/
+	synchronized boolean setGain(final String name, final float gain) {
+		Group group = this.groups.get(name);
+		if (group == null) {
+			group = new Group();
+			this.groups.put(name, group);
+		}
+		if (group.gain == gain) return false;
+		group.gain = gain;
+		return true;
+	}
+
+	/**
+	* Updates the gain applied to every key. Returns false if it did not change.
+	*/
+	synchronized boolean setMasterGain(final float gain) {
+		if (this.masterGain == gain) return false;
+		this.masterGain = gain;
+		return true;
+	}
+
+	synchronized int[] getAllKeys() {
+		int[] keys = new int[this.members.size()];
+		for (int i = 0; i < keys.length; i++) keys[i] = this.members.keyAt(i);
+		return keys;
+	}
+
+	synchronized int[] getKeys(final String name) {
+		Group group = this.groups.get(name);
+		return group != null ? toArray(group.keys) : new int[0];
+	}
+
+	synchronized void markPaused(final String name, final int key) {
+		Group group = this.groups.get(name);
+		if (group != null && !group.paused.contains(key)) group.paused.add(key);
+	}
+
+	/**
+	* Returns the keys paused by pauseGroup() and forgets them
+	*/
+	synchronized int[] takePaused(final String name) {
+		Group group = this.groups.get(name);
+		if (group == null) return new int[0];
+		int[] paused = toArray(group.paused);
+		group.paused.clear();
+		return paused;
+	}
+
+	synchronized void clear() {
+		this.groups.clear();
+		this.members.clear();
+		this.masterGain = 1;
+	}
+
+	private float getGain(final Member member) {
+		Group group = member.group != null ? this.groups.get(member.group) : null;
+		return (group != null ? group.gain : 1) * this.masterGain;
+	}
+
+	private static int[] toArray(final List<Integer> keys) {
+		int[] array = new int[keys.size()];
+		for (int i = 0; i < array.length; i++) array[i] = keys.get(i);
+		return array;
+	}
+
+}
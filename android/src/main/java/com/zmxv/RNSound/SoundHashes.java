@@ -0,0 +1,26 @@
+package com.zmxv.RNSound;
+
+import java.security.MessageDigest;
+
+/**
+* Hex SHA-1 of cache and index keys, so urls, paths and data: URIs of any length map to short file and index names
+*/
+final class SoundHashes {
+
+	private SoundHashes() {}
+
+	/**
+	* Falls back to String.hashCode() if SHA-1 is unavailable
+	*/
+	static String sha1Hex(final String key) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes("UTF-8"));
+			StringBuilder builder = new StringBuilder(digest.length * 2);
+			for (byte b : digest) builder.append(String.format("%02x", b));
+			return builder.toString();
+		} catch (Exception e) {
+			return Integer.toHexString(key.hashCode());
+		}
+	}
+
+}
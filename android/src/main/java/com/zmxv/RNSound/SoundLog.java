@@ -0,0 +1,40 @@
+package com.zmxv.RNSound;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.util.Log;
+
+/**
+* Native log level shared by every class of the module. Call sites check isLoggable() before building
+* the message, so disabled levels cost neither the string nor the Log call.
+*/
+final class SoundLog {
+
+	static final int NONE = Log.ASSERT + 1;
+
+	private static volatile int level = Log.WARN;
+
+	private SoundLog() {}
+
+	/**
+	* Defaults to DEBUG for debuggable apps and WARN otherwise
+	*/
+	static void init(final Context context) {
+		ApplicationInfo info = context.getApplicationInfo();
+		boolean debuggable = info != null && (info.flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+		level = debuggable ? Log.DEBUG : Log.WARN;
+	}
+
+	static boolean isLoggable(final int priority) {
+		return priority >= level;
+	}
+
+	static int getLevel() {
+		return level;
+	}
+
+	static void setLevel(final int priority) {
+		level = Math.max(Log.VERBOSE, Math.min(NONE, priority));
+	}
+
+}
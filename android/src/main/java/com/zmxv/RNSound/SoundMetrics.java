@@ -0,0 +1,188 @@
+package com.zmxv.RNSound;
+
+import android.media.MediaTimestamp;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+/**
+* Prepare and start latency histograms, prepare errors by data source scheme and player counts.
+* Start latency is measured from play() to the first frame reported by MediaPlayer.getTimestamp() on API 23+.
+*/
+class SoundMetrics {
+
+	static final String METRICS_EVENT = "metrics_event";
+	static final int SCHEME_RAW = 0;
+	static final int SCHEME_ASSET = 1;
+	static final int SCHEME_HTTP = 2;
+	static final int SCHEME_FILE = 3;
+	static final int SCHEME_CONTENT = 4;
+	private static final String[] SCHEME_NAMES = { "raw", "asset", "http", "file", "content" };
+	private static final String TAG = "RNSoundMetrics";
+	private static final long START_PROBE_INTERVAL_MS = 5;
+	private static final long START_PROBE_TIMEOUT_NS = 1000000000L;
+
+	private final ReactApplicationContext context;
+	private final LatencyHistogram prepareLatency = new LatencyHistogram();
+	private final LatencyHistogram startLatency = new LatencyHistogram();
+	private final long[] prepares = new long[SCHEME_NAMES.length];
+	private final long[] errors = new long[SCHEME_NAMES.length];
+	private int livePlayers = 0;
+	private int peakLivePlayers = 0;
+	private int poolSize = 0;
+	private int peakPoolSize = 0;
+	private int interval = 0;
+	private HandlerThread thread;
+	private Handler handler;
+
+	private final Runnable emitter = new Runnable() {
+		@Override
+		public void run() {
+			emit();
+		}
+	};
+
+	SoundMetrics(final ReactApplicationContext context) {
+		this.context = context;
+	}
+
+	void onPrepared(final int scheme, final long latencyMs) {
+		this.prepareLatency.record(latencyMs);
+		synchronized (this) {
+			this.prepares[scheme]++;
+		}
+	}
+
+	synchronized void onPrepareError(final int scheme) {
+		this.prepares[scheme]++;
+		this.errors[scheme]++;
+	}
+
+	synchronized void onPlayerCounts(final int livePlayers, final int poolSize) {
+		this.livePlayers = livePlayers;
+		this.poolSize = poolSize;
+		if (livePlayers > this.peakLivePlayers) this.peakLivePlayers = livePlayers;
+		if (poolSize > this.peakPoolSize) this.peakPoolSize = poolSize;
+	}
+
+	/**
+	* Polls the player's timestamp until its media clock moves past the position it was started from
+	*/
+	void probeStart(final PlayerEntry entry) {
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) return;
+		final SoundPlayer player = entry.getPlayer();
+		if (player == null) return;
+		final long requestedAt = System.nanoTime();
+		final long startMediaUs = player.getCurrentPosition() * 1000L;
+		final Handler probeHandler = this.getHandler();
+		probeHandler.post(new Runnable() {
+			@Override
+			public void run() {
+				if (entry.getPlayer() != player || !entry.isPlaying()) return;
+				try {
+					MediaTimestamp timestamp = player.getTimestamp();
+					if (timestamp != null && timestamp.getMediaClockRate() > 0 && timestamp.getAnchorMediaTimeUs() > startMediaUs) {
+						long played = (long) ((timestamp.getAnchorMediaTimeUs() - startMediaUs) * 1000 / timestamp.getMediaClockRate());
+						long startedAt = getAnchorNanos(timestamp) - played;
+						startLatency.record(Math.max(0, startedAt - requestedAt) / 1000000);
+						return;
+					}
+				} catch (Exception e) {
+					return;
+				}
+				if (System.nanoTime() - requestedAt < START_PROBE_TIMEOUT_NS) probeHandler.postDelayed(this, START_PROBE_INTERVAL_MS);
+			}
+		});
+	}
+
+	/**
+	* getAnchorSystemNanoTime() replaced the misspelled getter in API 29, which is above the compile SDK
+	*/
+	@SuppressWarnings("deprecation")
+	private static long getAnchorNanos(final MediaTimestamp timestamp) {
+		return timestamp.getAnchorSytemNanoTime();
+	}
+
+	/**
+	* Emits the metrics every intervalMs, or stops emitting when it is 0
+	*/
+	synchronized void setInterval(final int intervalMs) {
+		this.interval = Math.max(0, intervalMs);
+		Handler metricsHandler = this.getHandler();
+		metricsHandler.removeCallbacks(this.emitter);
+		if (this.interval > 0) metricsHandler.postDelayed(this.emitter, this.interval);
+	}
+
+	WritableMap toMap() {
+		WritableMap map = Arguments.createMap();
+		map.putMap("prepareLatency", this.prepareLatency.toMap());
+		map.putMap("startLatency", this.startLatency.toMap());
+		synchronized (this) {
+			WritableMap schemes = Arguments.createMap();
+			for (int i = 0; i < SCHEME_NAMES.length; i++) {
+				WritableMap scheme = Arguments.createMap();
+				scheme.putDouble("prepares", this.prepares[i]);
+				scheme.putDouble("errors", this.errors[i]);
+				scheme.putDouble("errorRate", this.prepares[i] > 0 ? (double) this.errors[i] / this.prepares[i] : 0);
+				schemes.putMap(SCHEME_NAMES[i], scheme);
+			}
+			map.putMap("schemes", schemes);
+			map.putInt("livePlayers", this.livePlayers);
+			map.putInt("peakLivePlayers", this.peakLivePlayers);
+			map.putInt("poolSize", this.poolSize);
+			map.putInt("peakPoolSize", this.peakPoolSize);
+		}
+		return map;
+	}
+
+	void reset() {
+		this.prepareLatency.reset();
+		this.startLatency.reset();
+		synchronized (this) {
+			for (int i = 0; i < SCHEME_NAMES.length; i++) {
+				this.prepares[i] = 0;
+				this.errors[i] = 0;
+			}
+			this.peakLivePlayers = this.livePlayers;
+			this.peakPoolSize = this.poolSize;
+		}
+	}
+
+	synchronized void release() {
+		if (this.thread == null) return;
+		this.handler.removeCallbacksAndMessages(null);
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) this.thread.quitSafely();
+		else this.thread.quit();
+		this.thread = null;
+		this.handler = null;
+	}
+
+	private synchronized Handler getHandler() {
+		if (this.thread == null) {
+			this.thread = new HandlerThread(TAG);
+			this.thread.start();
+			this.handler = new Handler(this.thread.getLooper());
+		}
+		return this.handler;
+	}
+
+	private void emit() {
+		try {
+			this.context
+				.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+				.emit(METRICS_EVENT, this.toMap());
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, "Error emitting metrics event", e);
+		}
+		synchronized (this) {
+			if (this.interval > 0 && this.handler != null) this.handler.postDelayed(this.emitter, this.interval);
+		}
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.zmxv.RNSound;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.MediaDataSource;
+import android.media.MediaTimestamp;
+import android.media.VolumeShaper;
+import android.net.Uri;
+
+import java.io.FileDescriptor;
+import java.io.IOException;
+
+/**
+* The player behind a key of the default engine, with the subset of the MediaPlayer API the module uses.
+* MediaPlayerAdapter wraps android.media.MediaPlayer. The FakePlayerBackend of the unit tests implements it in plain Java,
+* so the registry, pool, workers and listeners can be driven on a JVM without codecs or audio output.
+*/
+interface SoundPlayer {
+
+	/**
+	* Called on an arbitrary thread, like the MediaPlayer listeners it replaces
+	*/
+	interface Listener {
+		void onPrepared(SoundPlayer player);
+		void onCompletion(SoundPlayer player);
+		void onError(SoundPlayer player, int what, int extra);
+	}
+
+	void setListener(Listener listener);
+
+	void setDataSource(Context context, Uri uri) throws IOException;
+
+	void setDataSource(FileDescriptor fd, long offset, long length) throws IOException;
+
+	void setDataSource(String path) throws IOException;
+
+	/**
+	* Requires API 23
+	*/
+	void setDataSource(MediaDataSource dataSource) throws IOException;
+
+	/**
+	* Requires API 21
+	*/
+	void setAudioAttributes(AudioAttributes attributes);
+
+	void setAudioStreamType(int streamType);
+
+	void prepareAsync();
+
+	void start();
+
+	void pause();
+
+	void stop();
+
+	void seekTo(int ms);
+
+	void reset();
+
+	void release();
+
+	int getDuration();
+
+	int getCurrentPosition();
+
+	boolean isPlaying();
+
+	boolean isLooping();
+
+	void setLooping(boolean looping);
+
+	void setVolume(float left, float right);
+
+	/**
+	* Requires API 23
+	*/
+	void setSpeed(float speed);
+
+	/**
+	* Chains the player that starts when this one completes, or clears it with null
+	*/
+	void setNextPlayer(SoundPlayer next);
+
+	/**
+	* Returns null if the player cannot shape its volume. Requires API 26.
+	*/
+	VolumeShaper createVolumeShaper(VolumeShaper.Configuration configuration);
+
+	/**
+	* Returns null if no timestamp is available. Requires API 23.
+	*/
+	MediaTimestamp getTimestamp();
+
+}
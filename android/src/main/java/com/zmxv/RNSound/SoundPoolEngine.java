@@ -0,0 +1,268 @@
+package com.zmxv.RNSound;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.AudioAttributes;
+import android.media.MediaMetadataRetriever;
+import android.media.SoundPool;
+import android.media.SoundPool.OnLoadCompleteListener;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.SparseArray;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* Shared SoundPool backed engine for short clips, used by keys loaded with { engine: "pool" }
+*/
+class SoundPoolEngine {
+
+	private static final String TAG = "RNSoundPoolEngine";
+	private static final int MAX_STREAMS = 32;
+	private static final float MIN_RATE = 0.5f;
+	private static final float MAX_RATE = 2.0f;
+
+	private final Context context;
+	private final SoundPool soundPool;
+	private final SparseArray<PoolSound> sounds = new SparseArray<>();
+	private final SparseArray<Promise> pendingLoads = new SparseArray<>();
+
+	private static class PoolSound {
+		final int soundId;
+		final int duration;
+		final List<Integer> streamIds = new ArrayList<>();
+		final List<Long> streamEnds = new ArrayList<>();
+		float leftVolume = 1;
+		float rightVolume = 1;
+		boolean looping = false;
+		float rate = 1;
+		boolean paused = false;
+		long pausedAt = 0;
+
+		PoolSound(int soundId, int duration) {
+			this.soundId = soundId;
+			this.duration = duration;
+		}
+	}
+
+	SoundPoolEngine(final Context context, final Object audioAttributes, final int streamType) {
+		this.context = context;
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+			this.soundPool = new SoundPool(MAX_STREAMS, streamType, 0);
+		} else {
+			this.soundPool = new SoundPool.Builder()
+				.setMaxStreams(MAX_STREAMS)
+				.setAudioAttributes((AudioAttributes) audioAttributes)
+				.build();
+		}
+		this.soundPool.setOnLoadCompleteListener(this.createOnLoadCompleteListener());
+	}
+
+	private OnLoadCompleteListener createOnLoadCompleteListener() {
+		return new OnLoadCompleteListener() {
+			@Override
+			public void onLoadComplete(SoundPool pool, int soundId, int status) {
+				Promise promise;
+				int duration = -1;
+				synchronized (SoundPoolEngine.this) {
+					promise = pendingLoads.get(soundId);
+					pendingLoads.remove(soundId);
+					for (int i = 0; i < sounds.size(); i++) {
+						if (sounds.valueAt(i).soundId == soundId) duration = sounds.valueAt(i).duration;
+					}
+				}
+				if (promise == null) return;
+				if (status == 0) {
+					WritableMap map = Arguments.createMap();
+					if (duration > 0) map.putInt("duration", duration);
+					promise.resolve(map);
+					if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, soundId + " - Pool sound loaded");
+				} else {
+					promise.reject(new Exception("SoundPool failed to load sound with status " + status));
+				}
+			}
+		};
+	}
+
+	synchronized boolean hasKey(final int key) {
+		return this.sounds.get(key) != null;
+	}
+
+	void loadResource(final int key, final int resId, final Promise promise) throws Exception {
+		AssetFileDescriptor desc = this.context.getResources().openRawResourceFd(resId);
+		try {
+			this.loadDescriptor(key, desc, promise);
+		} finally {
+			desc.close();
+		}
+	}
+
+	void loadAsset(final int key, final String fileName, final Promise promise) throws Exception {
+		AssetFileDescriptor desc = this.context.getAssets().openFd(fileName);
+		try {
+			this.loadDescriptor(key, desc, promise);
+		} finally {
+			desc.close();
+		}
+	}
+
+	private void loadDescriptor(final int key, final AssetFileDescriptor desc, final Promise promise) throws Exception {
+		MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+		int duration;
+		try {
+			retriever.setDataSource(desc.getFileDescriptor(), desc.getStartOffset(), desc.getLength());
+			duration = this.extractDuration(retriever);
+		} finally {
+			retriever.release();
+		}
+		synchronized (this) {
+			int soundId = this.soundPool.load(desc, 1);
+			this.register(key, soundId, duration, promise);
+		}
+	}
+
+	void loadFile(final int key, final String path, final Promise promise) throws Exception {
+		MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+		int duration;
+		try {
+			retriever.setDataSource(path);
+			duration = this.extractDuration(retriever);
+		} finally {
+			retriever.release();
+		}
+		synchronized (this) {
+			int soundId = this.soundPool.load(path, 1);
+			this.register(key, soundId, duration, promise);
+		}
+	}
+
+	private int extractDuration(final MediaMetadataRetriever retriever) {
+		String value = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION);
+		if (value == null) return -1;
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private void register(final int key, final int soundId, final int duration, final Promise promise) throws Exception {
+		if (soundId == 0) throw new Exception("SoundPool could not load sound for key " + key);
+		this.unload(key);
+		this.sounds.put(key, new PoolSound(soundId, duration));
+		this.pendingLoads.put(soundId, promise);
+	}
+
+	synchronized void play(final int key) throws Exception {
+		PoolSound sound = this.sounds.get(key);
+		if (sound == null) throw new Exception("Undefined pool sound");
+		if (sound.paused) {
+			long pausedFor = SystemClock.uptimeMillis() - sound.pausedAt;
+			for (int i = 0; i < sound.streamIds.size(); i++) {
+				this.soundPool.resume(sound.streamIds.get(i));
+				long end = sound.streamEnds.get(i);
+				if (end != Long.MAX_VALUE) sound.streamEnds.set(i, end + pausedFor);
+			}
+			sound.paused = false;
+			return;
+		}
+		this.pruneStreams(sound);
+		int streamId = this.soundPool.play(sound.soundId, sound.leftVolume, sound.rightVolume, 1, sound.looping ? -1 : 0, sound.rate);
+		if (streamId == 0) throw new Exception("SoundPool could not play sound for key " + key);
+		sound.streamIds.add(streamId);
+		sound.streamEnds.add(this.getStreamEnd(sound));
+	}
+
+	private long getStreamEnd(final PoolSound sound) {
+		if (sound.looping || sound.duration <= 0) return Long.MAX_VALUE;
+		return SystemClock.uptimeMillis() + (long) (sound.duration / sound.rate);
+	}
+
+	private void pruneStreams(final PoolSound sound) {
+		long now = SystemClock.uptimeMillis();
+		for (int i = sound.streamIds.size() - 1; i >= 0; i--) {
+			if (sound.streamEnds.get(i) <= now) {
+				sound.streamIds.remove(i);
+				sound.streamEnds.remove(i);
+			}
+		}
+		while (sound.streamIds.size() >= MAX_STREAMS) {
+			this.soundPool.stop(sound.streamIds.remove(0));
+			sound.streamEnds.remove(0);
+		}
+	}
+
+	synchronized void pause(final int key) {
+		PoolSound sound = this.sounds.get(key);
+		if (sound == null || sound.paused) return;
+		this.pruneStreams(sound);
+		for (Integer streamId : sound.streamIds) this.soundPool.pause(streamId);
+		sound.paused = !sound.streamIds.isEmpty();
+		sound.pausedAt = SystemClock.uptimeMillis();
+	}
+
+	synchronized void stop(final int key) {
+		PoolSound sound = this.sounds.get(key);
+		if (sound == null) return;
+		for (Integer streamId : sound.streamIds) this.soundPool.stop(streamId);
+		sound.streamIds.clear();
+		sound.streamEnds.clear();
+		sound.paused = false;
+	}
+
+	synchronized void setVolume(final int key, final float left, final float right) {
+		PoolSound sound = this.sounds.get(key);
+		if (sound == null) return;
+		sound.leftVolume = left;
+		sound.rightVolume = right;
+		for (Integer streamId : sound.streamIds) this.soundPool.setVolume(streamId, left, right);
+	}
+
+	synchronized void setLooping(final int key, final boolean looping) {
+		PoolSound sound = this.sounds.get(key);
+		if (sound == null) return;
+		sound.looping = looping;
+		for (Integer streamId : sound.streamIds) this.soundPool.setLoop(streamId, looping ? -1 : 0);
+	}
+
+	synchronized void setSpeed(final int key, final float speed) {
+		PoolSound sound = this.sounds.get(key);
+		if (sound == null) return;
+		sound.rate = Math.max(MIN_RATE, Math.min(MAX_RATE, speed));
+		for (Integer streamId : sound.streamIds) this.soundPool.setRate(streamId, sound.rate);
+	}
+
+	synchronized boolean isPlaying(final int key) {
+		PoolSound sound = this.sounds.get(key);
+		if (sound == null || sound.paused) return false;
+		this.pruneStreams(sound);
+		return !sound.streamIds.isEmpty();
+	}
+
+	synchronized void unload(final int key) {
+		PoolSound sound = this.sounds.get(key);
+		if (sound == null) return;
+		this.sounds.remove(key);
+		for (Integer streamId : sound.streamIds) this.soundPool.stop(streamId);
+		Promise promise = this.pendingLoads.get(sound.soundId);
+		this.pendingLoads.remove(sound.soundId);
+		if (promise != null) promise.reject(new Exception("Pool sound released before load completed"));
+		this.soundPool.unload(sound.soundId);
+	}
+
+	synchronized void release() {
+		for (int i = 0; i < this.pendingLoads.size(); i++) {
+			this.pendingLoads.valueAt(i).reject(new Exception("Pool engine released before load completed"));
+		}
+		this.pendingLoads.clear();
+		this.sounds.clear();
+		this.soundPool.release();
+	}
+
+}
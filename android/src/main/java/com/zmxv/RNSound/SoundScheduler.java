@@ -0,0 +1,204 @@
+package com.zmxv.RNSound;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+* Starts several keys together. Every key is primed on its own worker first, then all of them are started back to back
+* from one audio priority thread, which sleeps until shortly before the start time on the nowNanos() clock and spins for
+* the rest. Only SoundPool, PCM and mixer keys are started from that thread and sample synchronized. MediaPlayer keys
+* are only touched on their worker, so their start is posted there at the start time and lands as soon as the worker
+* gets to it. The time between the first and the last start call is reported. It is not the skew of the audio output,
+* which also depends on how long each player takes to reach the output.
+*/
+class SoundScheduler {
+
+	private static final String TAG = "RNSoundScheduler";
+	private static final long SPIN_NANOS = 2000000;
+
+	interface Starter {
+		void start() throws Exception;
+	}
+
+	/**
+	* Starter that must run on the worker of its key, and is posted there instead of called from the scheduler thread
+	*/
+	interface WorkerStarter extends Starter {}
+
+	interface Host {
+		Starter prime(int key) throws Exception;
+		void onStarted(int key);
+	}
+
+	private final Host host;
+	private final SoundWorkers workers;
+	private HandlerThread thread;
+	private Handler handler;
+	private boolean released = false;
+
+	SoundScheduler(final Host host, final SoundWorkers workers) {
+		this.host = host;
+		this.workers = workers;
+	}
+
+	/**
+	* Starts the keys at startNanos, or as soon as all of them are primed when it is 0. Resolves with
+	* { startedAtNanos, lateMs, issueSpreadMs, keys: [{ key, offsetMs, started, synchronized }] } once every start ran, or
+	* rejects if a key could not be primed.
+	*/
+	void playAt(final int[] keys, final long startNanos, final Promise promise) {
+		if (keys.length == 0) {
+			promise.reject("E_SCHEDULE", "No keys to start");
+			return;
+		}
+		final Starter[] starters = new Starter[keys.length];
+		final AtomicInteger remaining = new AtomicInteger(keys.length);
+		final AtomicBoolean failed = new AtomicBoolean(false);
+		for (int i = 0; i < keys.length; i++) {
+			final int index = i;
+			this.workers.post(keys[i], new Runnable() {
+				@Override
+				public void run() {
+					try {
+						if (!failed.get()) starters[index] = host.prime(keys[index]);
+					} catch (Exception e) {
+						if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, keys[index] + " - Error priming", e);
+						if (failed.compareAndSet(false, true)) promise.reject(e);
+					}
+					if (remaining.decrementAndGet() == 0 && !failed.get()) schedule(keys, starters, startNanos, promise);
+				}
+			});
+		}
+	}
+
+	synchronized void release() {
+		this.released = true;
+		if (this.thread == null) return;
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) this.thread.quitSafely();
+		else this.thread.quit();
+		this.thread = null;
+		this.handler = null;
+	}
+
+	/**
+	* SystemClock.elapsedRealtimeNanos() is API 17. Older versions use the same clock in milliseconds.
+	*/
+	static long nowNanos() {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) return SystemClock.elapsedRealtimeNanos();
+		return SystemClock.elapsedRealtime() * 1000000;
+	}
+
+	private void schedule(final int[] keys, final Starter[] starters, final long startNanos, final Promise promise) {
+		Runnable start = new Runnable() {
+			@Override
+			public void run() {
+				startAll(keys, starters, startNanos, promise);
+			}
+		};
+		long delayMs = (startNanos - nowNanos() - SPIN_NANOS) / 1000000;
+		Handler handler = this.getHandler();
+		if (handler == null) {
+			promise.reject("E_SCHEDULE", "The scheduler was released");
+			return;
+		}
+		if (startNanos > 0 && delayMs > 0) handler.postDelayed(start, delayMs);
+		else handler.post(start);
+	}
+
+	private void startAll(final int[] keys, final Starter[] starters, final long startNanos, final Promise promise) {
+		final long target = startNanos > 0 ? startNanos : nowNanos();
+		while (nowNanos() < target) {
+			// Spin through the last SPIN_NANOS, sleeping would overshoot
+		}
+		final long[] issuedAt = new long[keys.length];
+		final long[] finishedAt = new long[keys.length];
+		final boolean[] started = new boolean[keys.length];
+		final boolean[] onWorker = new boolean[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			onWorker[i] = starters[i] instanceof WorkerStarter;
+			if (onWorker[i]) continue;
+			issuedAt[i] = nowNanos();
+			started[i] = this.start(keys[i], starters[i]);
+			finishedAt[i] = nowNanos();
+		}
+		// The last start to finish, on this thread or a worker, resolves the promise
+		final AtomicInteger pending = new AtomicInteger(1);
+		for (int i = 0; i < keys.length; i++) {
+			final int index = i;
+			if (onWorker[i]) pending.incrementAndGet();
+			else if (!started[i]) continue;
+			this.workers.post(keys[i], new Runnable() {
+				@Override
+				public void run() {
+					if (onWorker[index]) {
+						issuedAt[index] = nowNanos();
+						started[index] = start(keys[index], starters[index]);
+						finishedAt[index] = nowNanos();
+					}
+					if (started[index]) host.onStarted(keys[index]);
+					if (onWorker[index] && pending.decrementAndGet() == 0) report(keys, issuedAt, finishedAt, started, onWorker, target, promise);
+				}
+			});
+		}
+		if (pending.decrementAndGet() == 0) this.report(keys, issuedAt, finishedAt, started, onWorker, target, promise);
+	}
+
+	private boolean start(final int key, final Starter starter) {
+		try {
+			starter.start();
+			return true;
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.ERROR)) Log.e(TAG, key + " - Error starting", e);
+			return false;
+		}
+	}
+
+	private void report(final int[] keys, final long[] issuedAt, final long[] finishedAt, final boolean[] started,
+			final boolean[] onWorker, final long target, final Promise promise) {
+		long first = Long.MAX_VALUE;
+		long last = Long.MIN_VALUE;
+		for (int i = 0; i < keys.length; i++) {
+			first = Math.min(first, issuedAt[i]);
+			last = Math.max(last, finishedAt[i]);
+		}
+		WritableArray results = Arguments.createArray();
+		for (int i = 0; i < keys.length; i++) {
+			WritableMap result = Arguments.createMap();
+			result.putInt("key", keys[i]);
+			result.putDouble("offsetMs", (issuedAt[i] - first) / 1e6);
+			result.putBoolean("started", started[i]);
+			result.putBoolean("synchronized", !onWorker[i]);
+			results.pushMap(result);
+		}
+		WritableMap report = Arguments.createMap();
+		report.putDouble("startedAtNanos", first);
+		report.putDouble("lateMs", (first - target) / 1e6);
+		report.putDouble("issueSpreadMs", (last - first) / 1e6);
+		report.putArray("keys", results);
+		promise.resolve(report);
+		if (SoundLog.isLoggable(Log.DEBUG)) Log.d(TAG, "Started " + keys.length +  " keys, issued within " + (last - first) / 1000 + " us");
+	}
+
+	private synchronized Handler getHandler() {
+		if (this.released) return null;
+		if (this.thread == null) {
+			this.thread = new HandlerThread(TAG, Process.THREAD_PRIORITY_URGENT_AUDIO);
+			this.thread.start();
+			this.handler = new Handler(this.thread.getLooper());
+		}
+		return this.handler;
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.zmxv.RNSound;
+
+import android.util.SparseArray;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+* Named regions of keys loaded with loadSprite(). The mixer cuts regions off sample exactly. Other engines play from the
+* start of the region and are paused by a watcher that polls the position on the worker of the key, more often as the end nears.
+*/
+class SoundSprites {
+
+	private static final long MIN_POLL_MS = 5;
+	private static final long MAX_POLL_MS = 100;
+
+	interface Host {
+		int getPosition(int key);
+		void onRegionEnd(int key);
+	}
+
+	private final Host host;
+	private final SoundWorkers workers;
+	private final SparseArray<Map<String, int[]>> regions = new SparseArray<>();
+	private final SparseArray<Runnable> watchers = new SparseArray<>();
+
+	SoundSprites(final Host host, final SoundWorkers workers) {
+		this.host = host;
+		this.workers = workers;
+	}
+
+	/**
+	* Parses { name: [startMs, endMs] } and replaces the regions of the key
+	*/
+	void setRegions(final int key, final ReadableMap map) throws Exception {
+		Map<String, int[]> parsed = new HashMap<>();
+		ReadableMapKeySetIterator iterator = map.keySetIterator();
+		while (iterator.hasNextKey()) {
+			String name = iterator.nextKey();
+			ReadableArray bounds = map.getArray(name);
+			if (bounds == null || bounds.size() != 2) throw new Exception("Region " + name + " must be [startMs, endMs]");
+			int start = bounds.getInt(0);
+			int end = bounds.getInt(1);
+			if (start < 0 || end <= start) throw new Exception("Region " + name + " has invalid bounds [" + start + ", " + end + "]");
+			parsed.put(name, new int[] { start, end });
+		}
+		synchronized (this) {
+			this.regions.put(key, parsed);
+		}
+	}
+
+	synchronized int[] getRegion(final int key, final String name) throws Exception {
+		Map<String, int[]> sprite = this.regions.get(key);
+		if (sprite == null) throw new Exception("Key " + key + " was not loaded as a sprite");
+		int[] region = sprite.get(name);
+		if (region == null) throw new Exception("Undefined region " + name);
+		return region;
+	}
+
+	/**
+	* Pauses the key once it plays past endMs. Must run on the worker of the key.
+	*/
+	void watch(final int key, final int endMs) {
+		this.unwatch(key);
+		Runnable watcher = new Runnable() {
+			@Override
+			public void run() {
+				synchronized (SoundSprites.this) {
+					if (watchers.get(key) != this) return;
+				}
+				int remaining = endMs - host.getPosition(key);
+				if (remaining <= 0) {
+					unwatch(key);
+					host.onRegionEnd(key);
+					return;
+				}
+				workers.postDelayed(key, this, Math.max(MIN_POLL_MS, Math.min(MAX_POLL_MS, remaining / 2)));
+			}
+		};
+		synchronized (this) {
+			this.watchers.put(key, watcher);
+		}
+		watcher.run();
+	}
+
+	void unwatch(final int key) {
+		Runnable watcher;
+		synchronized (this) {
+			watcher = this.watchers.get(key);
+			if (watcher == null) return;
+			this.watchers.remove(key);
+		}
+		this.workers.remove(key, watcher);
+	}
+
+	void remove(final int key) {
+		this.unwatch(key);
+		synchronized (this) {
+			this.regions.remove(key);
+		}
+	}
+
+	synchronized void clear() {
+		this.regions.clear();
+		this.watchers.clear();
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.zmxv.RNSound;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+* Optional android.os.Trace sections so Perfetto/systrace captures show where audio startup time goes.
+* begin() returns whether a section was opened, and that value must be passed to end() on the same thread,
+* so toggling tracing in between never unbalances the sections.
+*/
+final class SoundTrace {
+
+	static final String LOAD = "RNSound.load";
+	static final String PREPARE = "RNSound.prepare";
+	static final String PLAY = "RNSound.play";
+	static final String RELEASE = "RNSound.release";
+	static final String ON_PREPARED = "RNSound.onPrepared";
+	static final String ON_COMPLETION = "RNSound.onCompletion";
+	static final String ON_ERROR = "RNSound.onError";
+
+	private static volatile boolean enabled = false;
+
+	private SoundTrace() {}
+
+	static void setEnabled(final boolean value) {
+		enabled = value;
+	}
+
+	static boolean begin(final String section) {
+		if (!enabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) return false;
+		Trace.beginSection(section);
+		return true;
+	}
+
+	static void end(final boolean begun) {
+		if (begun) Trace.endSection();
+	}
+
+}
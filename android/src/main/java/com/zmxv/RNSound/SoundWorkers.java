@@ -0,0 +1,105 @@
+package com.zmxv.RNSound;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.util.Log;
+
+/**
+* Small pool of HandlerThreads that run sound commands off the native modules thread.
+* Every key always maps to the same worker, so commands for one key stay ordered while different keys run in parallel.
+*/
+class SoundWorkers {
+
+	private static final String TAG = "RNSoundWorkers";
+	private static final int MAX_WORKERS = 4;
+	private static final long JOIN_TIMEOUT_MS = 500;
+	// Before quitSafely(), quits behind the commands already queued, such as the releases posted on teardown
+	private static final Runnable QUIT = new Runnable() {
+		@Override
+		public void run() {
+			Looper.myLooper().quit();
+		}
+	};
+
+	private final HandlerThread[] threads;
+	private final Handler[] handlers;
+	private boolean released = false;
+
+	SoundWorkers() {
+		int count = Math.max(2, Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors()));
+		this.threads = new HandlerThread[count];
+		this.handlers = new Handler[count];
+	}
+
+	/**
+	* Queues the runnable on the worker of the key. Runs it on the calling thread once the workers are released.
+	*/
+	void post(final int key, final Runnable runnable) {
+		Handler handler = this.getHandler(key);
+		if (handler == null) runnable.run();
+		else handler.post(runnable);
+	}
+
+	/**
+	* Runs the runnable right away if already on the worker of the key, otherwise queues it there
+	*/
+	void execute(final int key, final Runnable runnable) {
+		Handler handler = this.getHandler(key);
+		if (handler == null || handler.getLooper() == Looper.myLooper()) runnable.run();
+		else handler.post(runnable);
+	}
+
+	/**
+	* Queues the runnable on the worker of the key after the delay. Dropped once the workers are released.
+	*/
+	void postDelayed(final int key, final Runnable runnable, final long delayMs) {
+		Handler handler = this.getHandler(key);
+		if (handler != null) handler.postDelayed(runnable, delayMs);
+	}
+
+	void remove(final int key, final Runnable runnable) {
+		Handler handler = this.getHandler(key);
+		if (handler != null) handler.removeCallbacks(runnable);
+	}
+
+	/**
+	* Lets every worker finish its queued commands, then waits briefly for all of them to stop
+	*/
+	void release() {
+		HandlerThread[] stopped;
+		synchronized (this) {
+			this.released = true;
+			stopped = this.threads.clone();
+			for (int i = 0; i < this.threads.length; i++) {
+				if (this.threads[i] == null) continue;
+				if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) this.threads[i].quitSafely();
+				else this.handlers[i].post(QUIT);
+				this.threads[i] = null;
+				this.handlers[i] = null;
+			}
+		}
+		for (HandlerThread thread : stopped) {
+			if (thread == null) continue;
+			try {
+				thread.join(JOIN_TIMEOUT_MS);
+			} catch (InterruptedException e) {
+				if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, "Interrupted while stopping workers", e);
+				return;
+			}
+		}
+	}
+
+	private synchronized Handler getHandler(final int key) {
+		if (this.released) return null;
+		int index = (key & Integer.MAX_VALUE) % this.handlers.length;
+		if (this.threads[index] == null) {
+			this.threads[index] = new HandlerThread(TAG + "-" + index);
+			this.threads[index].start();
+			this.handlers[index] = new Handler(this.threads[index].getLooper());
+		}
+		return this.handlers[index];
+	}
+
+}
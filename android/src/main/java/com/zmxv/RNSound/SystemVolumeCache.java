@@ -0,0 +1,85 @@
+package com.zmxv.RNSound;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.media.AudioManager;
+import android.util.Log;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+* Stream volumes as a fraction of their maximum, so synchronous reads skip the AudioManager binder calls.
+* Entries are dropped whenever the system broadcasts a volume or mute change, or the module changes a volume itself.
+* Without the receiver, every read goes to AudioManager.
+*/
+class SystemVolumeCache {
+
+	private static final String TAG = "RNSoundSystemVolume";
+	// Hidden AudioManager broadcasts. Mute changes are only sent from API 23, older versions keep the volume index.
+	private static final String VOLUME_CHANGED_ACTION = "android.media.VOLUME_CHANGED_ACTION";
+	private static final String STREAM_MUTE_CHANGED_ACTION = "android.media.STREAM_MUTE_CHANGED_ACTION";
+
+	private final Context context;
+	private final ConcurrentHashMap<Integer, Float> volumes = new ConcurrentHashMap<>();
+	private final AtomicInteger generation = new AtomicInteger();
+	private boolean registered = false;
+	private boolean released = false;
+
+	private final BroadcastReceiver receiver = new BroadcastReceiver() {
+		@Override
+		public void onReceive(Context context, Intent intent) {
+			invalidate();
+		}
+	};
+
+	SystemVolumeCache(final Context context) {
+		this.context = context;
+	}
+
+	float get(final int stream) {
+		boolean cacheable = this.register();
+		Float cached = cacheable ? this.volumes.get(stream) : null;
+		if (cached != null) return cached;
+		int current = this.generation.get();
+		AudioManager audio = (AudioManager) this.context.getSystemService(Context.AUDIO_SERVICE);
+		float volume = (float) audio.getStreamVolume(stream) / audio.getStreamMaxVolume(stream);
+		// A change broadcast during the binder calls may have been missed by this value
+		if (cacheable && this.generation.get() == current) this.volumes.put(stream, volume);
+		return volume;
+	}
+
+	void invalidate() {
+		this.generation.incrementAndGet();
+		this.volumes.clear();
+	}
+
+	synchronized void release() {
+		this.released = true;
+		this.invalidate();
+		if (!this.registered) return;
+		this.registered = false;
+		try {
+			this.context.unregisterReceiver(this.receiver);
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, "Error unregistering volume receiver", e);
+		}
+	}
+
+	private synchronized boolean register() {
+		if (this.registered || this.released) return this.registered;
+		try {
+			IntentFilter filter = new IntentFilter(VOLUME_CHANGED_ACTION);
+			filter.addAction(STREAM_MUTE_CHANGED_ACTION);
+			this.context.registerReceiver(this.receiver, filter);
+			this.registered = true;
+		} catch (Exception e) {
+			if (SoundLog.isLoggable(Log.WARN)) Log.w(TAG, "Error registering volume receiver, volumes are not cached", e);
+			this.released = true;
+		}
+		return this.registered;
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.zmxv.RNSound;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ByteRangeSetTest {
+
+	@Test
+	public void ignoresEmptyRanges() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(10, 10);
+		set.add(20, 5);
+		assertTrue(set.snapshot().isEmpty());
+	}
+
+	@Test
+	public void keepsDisjointRangesSorted() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(40, 50);
+		set.add(0, 10);
+		set.add(20, 30);
+		assertRanges(set, 0, 10, 20, 30, 40, 50);
+	}
+
+	@Test
+	public void mergesOverlappingAndAdjacentRanges() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(0, 10);
+		set.add(10, 20);
+		assertRanges(set, 0, 20);
+		set.add(30, 40);
+		set.add(15, 35);
+		assertRanges(set, 0, 40);
+	}
+
+	@Test
+	public void mergesRangeSpanningSeveralOthers() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(10, 20);
+		set.add(30, 40);
+		set.add(50, 60);
+		set.add(70, 80);
+		set.add(5, 65);
+		assertRanges(set, 5, 65, 70, 80);
+	}
+
+	@Test
+	public void keepsContainedRange() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(0, 100);
+		set.add(20, 30);
+		assertRanges(set, 0, 100);
+	}
+
+	@Test
+	public void containsTreatsEndAsExclusive() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(10, 20);
+		assertTrue(set.contains(10, 20));
+		assertTrue(set.contains(12, 18));
+		assertFalse(set.contains(9, 20));
+		assertFalse(set.contains(10, 21));
+		assertFalse(set.contains(20, 21));
+	}
+
+	@Test
+	public void containsNeedsOneContiguousRange() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(0, 10);
+		set.add(11, 20);
+		assertFalse(set.contains(5, 15));
+		set.add(10, 11);
+		assertTrue(set.contains(5, 15));
+	}
+
+	@Test
+	public void coveredFromReturnsEndOfCoveringRange() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(10, 20);
+		assertEquals(20, set.coveredFrom(10));
+		assertEquals(20, set.coveredFrom(19));
+		assertEquals(20, set.coveredFrom(20));
+		assertEquals(5, set.coveredFrom(5));
+	}
+
+	@Test
+	public void firstGapOfEmptySetIsWholeWindow() {
+		assertArrayEquals(new long[] { 0, 100 }, new ByteRangeSet().firstGap(0, 100));
+	}
+
+	@Test
+	public void firstGapSkipsCoveredPrefix() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(0, 10);
+		set.add(20, 30);
+		assertArrayEquals(new long[] { 10, 20 }, set.firstGap(0, 100));
+		assertArrayEquals(new long[] { 10, 15 }, set.firstGap(0, 15));
+		assertArrayEquals(new long[] { 30, 100 }, set.firstGap(20, 100));
+	}
+
+	@Test
+	public void firstGapStartsInsideGap() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(20, 30);
+		assertArrayEquals(new long[] { 5, 20 }, set.firstGap(5, 100));
+		assertArrayEquals(new long[] { 35, 100 }, set.firstGap(35, 100));
+	}
+
+	@Test
+	public void firstGapIsNullWhenCovered() {
+		ByteRangeSet set = new ByteRangeSet();
+		set.add(0, 100);
+		assertNull(set.firstGap(0, 100));
+		assertNull(set.firstGap(10, 50));
+		set.clear();
+		assertArrayEquals(new long[] { 0, 100 }, set.firstGap(0, 100));
+	}
+
+	private static void assertRanges(final ByteRangeSet set, final long... bounds) {
+		List<long[]> ranges = set.snapshot();
+		assertEquals(bounds.length / 2, ranges.size());
+		for (int i = 0; i < ranges.size(); i++) assertArrayEquals(new long[] { bounds[i * 2], bounds[i * 2 + 1] }, ranges.get(i));
+	}
+
+}
@@ -0,0 +1,272 @@
+package com.zmxv.RNSound;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.MediaDataSource;
+import android.media.MediaTimestamp;
+import android.media.VolumeShaper;
+import android.net.Uri;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+* Backend whose players never decode audio and touch no Android framework code, so they run on a plain JVM.
+* Prepares succeed or fail after a configurable delay and playback completes after a fixed duration. Listeners are
+* called from one timer thread, like MediaPlayer calls them from its looper. Used by PlayerBackendBenchmark to load
+* test the bridge methods, registry, pool and listeners.
+*/
+class FakePlayerBackend implements PlayerBackend {
+
+	static final int DEFAULT_PREPARE_DELAY_MS = 0;
+	static final int DEFAULT_DURATION_MS = 1000;
+	static final int MEDIA_ERROR_UNKNOWN = 1;
+	static final int MEDIA_ERROR_IO = -1004;
+
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "RNSoundFakePlayer");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+	private final Random random = new Random();
+	private final int prepareDelayMs;
+	private final double failureRate;
+	private final int durationMs;
+
+	FakePlayerBackend(final int prepareDelayMs, final double failureRate, final int durationMs) {
+		this.prepareDelayMs = Math.max(0, prepareDelayMs);
+		this.failureRate = Math.max(0, Math.min(1, failureRate));
+		this.durationMs = Math.max(0, durationMs);
+	}
+
+	@Override
+	public SoundPlayer createPlayer() {
+		return new FakePlayer(this);
+	}
+
+	void shutdown() {
+		this.timer.shutdownNow();
+	}
+
+	private synchronized boolean shouldFail() {
+		return this.failureRate > 0 && this.random.nextDouble() < this.failureRate;
+	}
+
+	private static long elapsedMillis() {
+		return System.nanoTime() / 1000000;
+	}
+
+	private static class FakePlayer implements SoundPlayer {
+
+		private final FakePlayerBackend backend;
+		private Listener listener;
+		private SoundPlayer next;
+		private Closeable source;
+		private boolean hasSource = false;
+		private boolean prepared = false;
+		private boolean playing = false;
+		private boolean looping = false;
+		private int position = 0;
+		private long startedAt = 0;
+		private int generation = 0;
+
+		FakePlayer(final FakePlayerBackend backend) {
+			this.backend = backend;
+		}
+
+		@Override
+		public synchronized void setListener(Listener listener) {
+			this.listener = listener;
+		}
+
+		@Override
+		public synchronized void setDataSource(Context context, Uri uri) {
+			this.hasSource = true;
+		}
+
+		@Override
+		public synchronized void setDataSource(FileDescriptor fd, long offset, long length) {
+			this.hasSource = true;
+		}
+
+		@Override
+		public synchronized void setDataSource(String path) {
+			this.hasSource = true;
+		}
+
+		@Override
+		public synchronized void setDataSource(MediaDataSource dataSource) {
+			this.hasSource = true;
+			this.source = dataSource;
+		}
+
+		@Override
+		public void setAudioAttributes(AudioAttributes attributes) {}
+
+		@Override
+		public void setAudioStreamType(int streamType) {}
+
+		@Override
+		public synchronized void prepareAsync() {
+			if (!this.hasSource) throw new IllegalStateException("No data source");
+			final int current = this.generation;
+			final boolean fail = this.backend.shouldFail();
+			this.backend.timer.schedule(new Runnable() {
+				@Override
+				public void run() {
+					Listener listener;
+					synchronized (FakePlayer.this) {
+						if (current != generation) return;
+						if (!fail) prepared = true;
+						listener = FakePlayer.this.listener;
+					}
+					if (listener == null) return;
+					if (fail) listener.onError(FakePlayer.this, MEDIA_ERROR_UNKNOWN, MEDIA_ERROR_IO);
+					else listener.onPrepared(FakePlayer.this);
+				}
+			}, this.backend.prepareDelayMs, TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public synchronized int getDuration() {
+			return this.prepared ? this.backend.durationMs : -1;
+		}
+
+		@Override
+		public synchronized int getCurrentPosition() {
+			if (!this.playing) return this.position;
+			return (int) Math.min(this.backend.durationMs, this.position + elapsedMillis() - this.startedAt);
+		}
+
+		@Override
+		public synchronized boolean isPlaying() {
+			return this.playing;
+		}
+
+		@Override
+		public synchronized void start() {
+			if (!this.prepared) throw new IllegalStateException("Not prepared");
+			if (this.playing) return;
+			if (this.position >= this.backend.durationMs) this.position = 0;
+			this.playing = true;
+			this.startedAt = elapsedMillis();
+			this.scheduleCompletion();
+		}
+
+		@Override
+		public synchronized void pause() {
+			if (!this.playing) return;
+			this.position = this.getCurrentPosition();
+			this.playing = false;
+			this.generation++;
+		}
+
+		@Override
+		public synchronized void stop() {
+			this.pause();
+			this.prepared = false;
+		}
+
+		@Override
+		public synchronized void seekTo(int ms) {
+			this.position = Math.max(0, Math.min(this.backend.durationMs, ms));
+			if (!this.playing) return;
+			this.startedAt = elapsedMillis();
+			this.generation++;
+			this.scheduleCompletion();
+		}
+
+		@Override
+		public synchronized boolean isLooping() {
+			return this.looping;
+		}
+
+		@Override
+		public synchronized void setLooping(boolean looping) {
+			this.looping = looping;
+		}
+
+		@Override
+		public void setVolume(float left, float right) {}
+
+		@Override
+		public void setSpeed(float speed) {}
+
+		@Override
+		public synchronized void setNextPlayer(SoundPlayer next) {
+			this.next = next;
+		}
+
+		@Override
+		public VolumeShaper createVolumeShaper(VolumeShaper.Configuration configuration) {
+			return null;
+		}
+
+		@Override
+		public MediaTimestamp getTimestamp() {
+			return null;
+		}
+
+		@Override
+		public synchronized void reset() {
+			this.generation++;
+			this.closeSource();
+			this.hasSource = false;
+			this.prepared = false;
+			this.playing = false;
+			this.looping = false;
+			this.position = 0;
+			this.next = null;
+		}
+
+		@Override
+		public synchronized void release() {
+			this.reset();
+			this.listener = null;
+		}
+
+		private void scheduleCompletion() {
+			final int current = this.generation;
+			this.backend.timer.schedule(new Runnable() {
+				@Override
+				public void run() {
+					Listener listener;
+					SoundPlayer chained;
+					synchronized (FakePlayer.this) {
+						if (current != generation || !playing) return;
+						if (looping) {
+							position = 0;
+							startedAt = elapsedMillis();
+							scheduleCompletion();
+							return;
+						}
+						position = backend.durationMs;
+						playing = false;
+						listener = FakePlayer.this.listener;
+						chained = next;
+					}
+					if (chained != null) chained.start();
+					if (listener != null) listener.onCompletion(FakePlayer.this);
+				}
+			}, Math.max(0, this.backend.durationMs - this.position), TimeUnit.MILLISECONDS);
+		}
+
+		private void closeSource() {
+			if (this.source == null) return;
+			try {
+				this.source.close();
+			} catch (Exception ignored) {}
+			this.source = null;
+		}
+
+	}
+
+}
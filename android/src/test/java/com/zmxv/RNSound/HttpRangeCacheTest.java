@@ -0,0 +1,183 @@
+package com.zmxv.RNSound;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+* Reads through the cache from a local server that answers Range requests with 206, or ignores them and sends the
+* whole file with 200. The cache budget is just below the file size, so no background download competes with the reads
+* under test, while partial copies stay cached between opens.
+*/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class HttpRangeCacheTest {
+
+	private static final int SIZE = 1500 * 1000;
+	private static final int OFFSET = 1000 * 1000;
+	private static final int LENGTH = 100;
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private final RangeDispatcher dispatcher = new RangeDispatcher();
+	private MockWebServer server;
+	private HttpRangeCache cache;
+	private String url;
+
+	@Before
+	public void setUp() throws Exception {
+		this.server = new MockWebServer();
+		this.server.setDispatcher(this.dispatcher);
+		this.server.start();
+		this.url = this.server.url("/sound.mp3").toString();
+		this.cache = new HttpRangeCache(this.folder.newFolder("cache"));
+		this.cache.setMaxBytes(SIZE - 1);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.server.shutdown();
+	}
+
+	@Test
+	public void readsMissingBytesWithRangeRequests() throws Exception {
+		this.dispatcher.serve(createContent(1), "\"v1\"");
+		CachedHttpDataSource source = this.cache.open(this.url);
+		try {
+			assertEquals(SIZE, source.getSize());
+			assertArrayEquals(slice(createContent(1), OFFSET, LENGTH), read(source, OFFSET, LENGTH));
+		} finally {
+			source.close();
+		}
+		assertTrue(this.dispatcher.partial.get() > 0);
+		assertEquals(0, this.dispatcher.full.get());
+	}
+
+	@Test
+	public void fallsBackToWholeResponseWithoutRangeSupport() throws Exception {
+		this.dispatcher.serve(createContent(1), "\"v1\"");
+		this.dispatcher.ranges = false;
+		CachedHttpDataSource source = this.cache.open(this.url);
+		try {
+			assertEquals(SIZE, source.getSize());
+			assertArrayEquals(slice(createContent(1), OFFSET, LENGTH), read(source, OFFSET, LENGTH));
+			assertArrayEquals(slice(createContent(1), 0, LENGTH), read(source, 0, LENGTH));
+		} finally {
+			source.close();
+		}
+		assertEquals(0, this.dispatcher.partial.get());
+		assertTrue(this.dispatcher.full.get() > 0);
+	}
+
+	@Test
+	public void dropsCachedRangesWhenValidatorChanges() throws Exception {
+		this.dispatcher.serve(createContent(1), "\"v1\"");
+		CachedHttpDataSource source = this.cache.open(this.url);
+		try {
+			assertArrayEquals(slice(createContent(1), 0, LENGTH), read(source, 0, LENGTH));
+		} finally {
+			source.close();
+		}
+		this.dispatcher.serve(createContent(2), "\"v2\"");
+		source = this.cache.open(this.url);
+		try {
+			read(source, OFFSET, LENGTH);
+			fail("A reader of the old copy must not get bytes of the changed file");
+		} catch (IOException expected) {
+			// The If-Range request got the whole changed file back
+		} finally {
+			source.close();
+		}
+		assertEquals(1, this.dispatcher.full.get());
+		source = this.cache.open(this.url);
+		try {
+			assertArrayEquals(slice(createContent(2), 0, LENGTH), read(source, 0, LENGTH));
+			assertArrayEquals(slice(createContent(2), OFFSET, LENGTH), read(source, OFFSET, LENGTH));
+		} finally {
+			source.close();
+		}
+	}
+
+	private static byte[] read(final CachedHttpDataSource source, final long position, final int length) throws IOException {
+		byte[] buffer = new byte[length];
+		int offset = 0;
+		while (offset < length) {
+			int read = source.readAt(position + offset, buffer, offset, length - offset);
+			if (read <= 0) throw new IOException("Short read at " + (position + offset));
+			offset += read;
+		}
+		return buffer;
+	}
+
+	private static byte[] createContent(final int version) {
+		byte[] content = new byte[SIZE];
+		for (int i = 0; i < SIZE; i++) content[i] = (byte) (i * (version * 14 + 17) + version);
+		return content;
+	}
+
+	private static byte[] slice(final byte[] content, final int offset, final int length) {
+		return Arrays.copyOfRange(content, offset, offset + length);
+	}
+
+	/**
+	* Answers Range requests with 206 unless ranges is false or If-Range does not match the current ETag
+	*/
+	private static class RangeDispatcher extends Dispatcher {
+
+		final AtomicInteger partial = new AtomicInteger();
+		final AtomicInteger full = new AtomicInteger();
+		volatile boolean ranges = true;
+		private volatile byte[] content;
+		private volatile String etag;
+
+		void serve(final byte[] content, final String etag) {
+			this.content = content;
+			this.etag = etag;
+		}
+
+		@Override
+		public MockResponse dispatch(RecordedRequest request) {
+			byte[] content = this.content;
+			String etag = this.etag;
+			MockResponse response = new MockResponse().setHeader("ETag", etag);
+			if ("HEAD".equals(request.getMethod())) return response.setHeader("Content-Length", content.length);
+			String range = request.getHeader("Range");
+			String ifRange = request.getHeader("If-Range");
+			if (!this.ranges || range == null || (ifRange != null && !ifRange.equals(etag))) {
+				this.full.incrementAndGet();
+				return response.setBody(new Buffer().write(content));
+			}
+			String[] bounds = range.substring("bytes=".length()).split("-");
+			int start = Integer.parseInt(bounds[0]);
+			int end = Math.min(content.length - 1, Integer.parseInt(bounds[1]));
+			this.partial.incrementAndGet();
+			return response
+				.setResponseCode(206)
+				.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + content.length)
+				.setBody(new Buffer().write(content, start, end - start + 1));
+		}
+
+	}
+
+}
@@ -0,0 +1,319 @@
+package com.zmxv.RNSound;
+
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+* Drives RNSoundModule with fake players on a plain JVM and prints three measurements: load/play/release throughput,
+* command throughput while completion callbacks storm the registry, and the native cost of executeBatch() against one
+* call per command. JS bridge serialization is not part of these numbers. Only failed or missing results fail the tests,
+* so timings never make a build flaky. Excluded from the default unit tests, run with ./gradlew testDebugUnitTest -Pbenchmark
+* and raise the sizes with -Drnsound.benchmark.sounds and -Drnsound.benchmark.ops.
+*/
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, shadows = ShadowArguments.class, instrumentedPackages = "com.facebook.react.bridge")
+@LooperMode(LooperMode.Mode.PAUSED)
+public class PlayerBackendBenchmark {
+
+	private static final int SOUNDS = Integer.getInteger("rnsound.benchmark.sounds", 1000);
+	private static final int OPS = Integer.getInteger("rnsound.benchmark.ops", 10000);
+	private static final int IN_FLIGHT = 64;
+	private static final int STORM_KEYS = 256;
+	private static final int[] THREAD_COUNTS = { 1, 4, 16 };
+	private static final long WINDOW_MS = 1000;
+	private static final long TIMEOUT_S = 120;
+
+	private final AtomicInteger failures = new AtomicInteger();
+	private RNSoundModule module;
+	private FakePlayerBackend backend;
+	private String dataSource;
+
+	@Before
+	public void setUp() throws Exception {
+		File file = File.createTempFile("rnsound-benchmark", ".mp3");
+		file.deleteOnExit();
+		this.dataSource = file.getAbsolutePath();
+		this.module = new RNSoundModule(new ReactApplicationContext(RuntimeEnvironment.application));
+		SoundLog.setLevel(SoundLog.NONE);
+		this.backend = new FakePlayerBackend(0, 0, 1);
+		this.module.setPlayerBackend(this.backend);
+	}
+
+	@After
+	public void tearDown() {
+		this.module.onCatalystInstanceDestroy();
+		this.backend.shutdown();
+	}
+
+	@Test
+	public void loadPlayReleaseThroughput() throws Exception {
+		this.cycle(0, IN_FLIGHT);
+		long start = System.nanoTime();
+		this.cycle(IN_FLIGHT, SOUNDS);
+		report("load/play/release", SOUNDS, "cycles", System.nanoTime() - start);
+		assertEquals(0, this.failures.get());
+	}
+
+	@Test
+	public void commandThroughputUnderCallbackStorm() throws Exception {
+		this.loadKeys(0, STORM_KEYS);
+		for (int threads : THREAD_COUNTS) {
+			report("setVolume, " + threads + " threads, no callbacks", this.measureCommands(threads), "ops", TimeUnit.MILLISECONDS.toNanos(WINDOW_MS));
+		}
+		AtomicBoolean storming = new AtomicBoolean(true);
+		AtomicLong completions = new AtomicLong();
+		for (int key = 0; key < STORM_KEYS; key++) this.replay(key, storming, completions);
+		for (int threads : THREAD_COUNTS) {
+			long before = completions.get();
+			long ops = this.measureCommands(threads);
+			long callbacks = completions.get() - before;
+			report("setVolume, " + threads + " threads, " + callbacks + " completions", ops, "ops", TimeUnit.MILLISECONDS.toNanos(WINDOW_MS));
+		}
+		storming.set(false);
+		assertTrue(completions.get() > 0);
+		assertEquals(0, this.failures.get());
+	}
+
+	@Test
+	public void batchVersusPerCallOverhead() throws Exception {
+		this.loadKeys(0, IN_FLIGHT);
+		this.perCall(OPS / 10);
+		this.batch(createBatch(OPS / 10));
+		long start = System.nanoTime();
+		this.perCall(OPS);
+		report("setVolume per call", OPS, "ops", System.nanoTime() - start);
+		ReadableArray ops = createBatch(OPS);
+		start = System.nanoTime();
+		this.batch(ops);
+		report("setVolume in executeBatch", OPS, "ops", System.nanoTime() - start);
+		assertEquals(0, this.failures.get());
+	}
+
+	/**
+	* Loads, plays and releases count keys, keeping IN_FLIGHT of them busy at a time
+	*/
+	private void cycle(final int firstKey, final int count) throws Exception {
+		final Semaphore inFlight = new Semaphore(IN_FLIGHT);
+		final CountDownLatch done = new CountDownLatch(count);
+		final Runnable finish = new Runnable() {
+			@Override
+			public void run() {
+				inFlight.release();
+				done.countDown();
+			}
+		};
+		for (int i = 0; i < count; i++) {
+			inFlight.acquire();
+			final int key = firstKey + i;
+			this.module.load(key, this.dataSource, new JavaOnlyMap(), this.then(new Runnable() {
+				@Override
+				public void run() {
+					module.play(key, then(new Runnable() {
+						@Override
+						public void run() {
+							module.release(key, then(finish, finish));
+						}
+					}, finish));
+				}
+			}, finish));
+		}
+		assertTrue(done.await(TIMEOUT_S, TimeUnit.SECONDS));
+	}
+
+	private void loadKeys(final int firstKey, final int count) throws Exception {
+		final CountDownLatch done = new CountDownLatch(count);
+		Runnable countDown = countDown(done);
+		for (int i = 0; i < count; i++) this.module.load(firstKey + i, this.dataSource, new JavaOnlyMap(), this.then(countDown, countDown));
+		assertTrue(done.await(TIMEOUT_S, TimeUnit.SECONDS));
+	}
+
+	/**
+	* Plays the key again every time it completes, until storming is cleared
+	*/
+	private void replay(final int key, final AtomicBoolean storming, final AtomicLong completions) {
+		if (!storming.get()) return;
+		this.module.setOnCompletionListener(key, new Callback() {
+			@Override
+			public void invoke(Object... args) {
+				completions.incrementAndGet();
+				replay(key, storming, completions);
+			}
+		});
+		this.module.play(key, this.then(null, null));
+	}
+
+	/**
+	* Issues setVolume() on random keys from the given number of threads for WINDOW_MS, each waiting for its result,
+	* and returns how many completed
+	*/
+	private long measureCommands(final int threadCount) throws Exception {
+		final AtomicLong completed = new AtomicLong();
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WINDOW_MS);
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final Random random = new Random(i);
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						while (System.nanoTime() < deadline) {
+							CountDownLatch done = new CountDownLatch(1);
+							Runnable countDown = countDown(done);
+							module.setVolume(random.nextInt(STORM_KEYS), 0.5f, 0.5f, then(countDown, countDown));
+							if (!done.await(TIMEOUT_S, TimeUnit.SECONDS)) break;
+							completed.incrementAndGet();
+						}
+					} catch (InterruptedException ignored) {}
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) thread.join();
+		return completed.get();
+	}
+
+	private void perCall(final int count) throws Exception {
+		final CountDownLatch done = new CountDownLatch(count);
+		Runnable countDown = countDown(done);
+		for (int i = 0; i < count; i++) this.module.setVolume(i % IN_FLIGHT, 0.5f, 0.5f, this.then(countDown, countDown));
+		assertTrue(done.await(TIMEOUT_S, TimeUnit.SECONDS));
+	}
+
+	private void batch(final ReadableArray ops) throws Exception {
+		final CountDownLatch done = new CountDownLatch(1);
+		Runnable countDown = countDown(done);
+		this.module.executeBatch(ops, this.then(countDown, countDown));
+		assertTrue(done.await(TIMEOUT_S, TimeUnit.SECONDS));
+	}
+
+	private static ReadableArray createBatch(final int count) {
+		JavaOnlyArray ops = new JavaOnlyArray();
+		for (int i = 0; i < count; i++) {
+			JavaOnlyMap op = new JavaOnlyMap();
+			op.putString("type", "setVolume");
+			op.putInt("key", i % IN_FLIGHT);
+			op.putDouble("left", 0.5);
+			op.putDouble("right", 0.5);
+			ops.pushMap(op);
+		}
+		return ops;
+	}
+
+	private static Runnable countDown(final CountDownLatch latch) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+		};
+	}
+
+	private static void report(final String name, final long count, final String unit, final long nanos) {
+		double seconds = nanos / 1e9;
+		System.out.println(String.format(Locale.US, "%s: %d %s in %.0f ms, %.0f/s, %.1f us each",
+			name, count, unit, seconds * 1000, count / seconds, count > 0 ? nanos / 1e3 / count : 0));
+	}
+
+	/**
+	* Counts rejections as failures and runs the matching continuation
+	*/
+	private Promise then(final Runnable onResolved, final Runnable onRejected) {
+		return new BenchmarkPromise() {
+			@Override
+			void onResolved() {
+				if (onResolved != null) onResolved.run();
+			}
+
+			@Override
+			void onRejected() {
+				failures.incrementAndGet();
+				if (onRejected != null) onRejected.run();
+			}
+		};
+	}
+
+	/**
+	* Promise without PromiseImpl, whose rejections build native maps. The reject overloads differ between
+	* React Native versions, so they carry no @Override.
+	*/
+	private abstract static class BenchmarkPromise implements Promise {
+
+		abstract void onResolved();
+
+		abstract void onRejected();
+
+		@Override
+		public void resolve(Object value) {
+			this.onResolved();
+		}
+
+		public void reject(String code, String message) {
+			this.onRejected();
+		}
+
+		public void reject(String code, Throwable throwable) {
+			this.onRejected();
+		}
+
+		public void reject(String code, String message, Throwable throwable) {
+			this.onRejected();
+		}
+
+		public void reject(Throwable throwable) {
+			this.onRejected();
+		}
+
+		public void reject(Throwable throwable, WritableMap userInfo) {
+			this.onRejected();
+		}
+
+		public void reject(String code, WritableMap userInfo) {
+			this.onRejected();
+		}
+
+		public void reject(String code, Throwable throwable, WritableMap userInfo) {
+			this.onRejected();
+		}
+
+		public void reject(String code, String message, WritableMap userInfo) {
+			this.onRejected();
+		}
+
+		public void reject(String code, String message, Throwable throwable, WritableMap userInfo) {
+			this.onRejected();
+		}
+
+		public void reject(String message) {
+			this.onRejected();
+		}
+
+	}
+
+}
@@ -9,8 +9,12 @@ const IS_ANDROID = RNSound.IsAndroid;
 const IS_WINDOWS = RNSound.IsWindows;
 const eventEmitter = new NativeEventEmitter(RNSound);
 const AUDIO_FOCUS_EVENT = "audio_focus_event";
+const PROGRESS_EVENT = "progress_event";
+const PRELOAD_EVENT = "preload_event";
+const QUEUE_EVENT = "queue_event";
+const METRICS_EVENT = "metrics_event";
 
-const isAbsolutePath = (path: string) => /^(\/|http(s?)|asset)/.test(path);
+const isAbsolutePath = (path: string) => /^(\/|http(s?)|asset|content:|file:|data:)/.test(path);
 
 const isBundledFile = (fileName: string) => IS_ANDROID && !isAbsolutePath(fileName);
 
@@ -24,7 +28,76 @@ const parseDataSource = (fileName: string, path?: string) => {
 	return fileName;
 };
 
+const BASE64_VALUES = (() => {
+	const alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+	const values = new Int8Array(128).fill(-1);
+	for (let i = 0; i < alphabet.length; i++) values[alphabet.charCodeAt(i)] = i;
+	return values;
+})();
+
+// Native peaks arrive as base64 of little endian 16 bit samples
+const decodePeaks = (base64: string): Float32Array => {
+	const bytes = new Uint8Array(Math.floor((base64.length * 3) / 4));
+	let length = 0;
+	let buffer = 0;
+	let bits = 0;
+	for (let i = 0; i < base64.length; i++) {
+		const code = base64.charCodeAt(i);
+		const value = code < 128 ? BASE64_VALUES[code] : -1;
+		if (value < 0) continue;
+		buffer = ((buffer << 6) | value) & 0xffffff;
+		bits += 6;
+		if (bits < 8) continue;
+		bits -= 8;
+		bytes[length++] = (buffer >> bits) & 0xff;
+	}
+	const peaks = new Float32Array(length >> 1);
+	for (let i = 0; i < peaks.length; i++) peaks[i] = (((bytes[i * 2] | (bytes[i * 2 + 1] << 8)) << 16) >> 16) / 32768;
+	return peaks;
+};
+
 let keyCounter = 0;
+let queuedSounds: { [key: number]: Sound } = {};
+let queueSubscription = null;
+let groupedSounds: { [group: string]: { [key: number]: Sound } } = {};
+
+const trackGroup = (sound: Sound, group?: string) => {
+	Object.keys(groupedSounds).forEach(name => delete groupedSounds[name][sound.key]);
+	if (!group) return;
+	if (!groupedSounds[group]) groupedSounds[group] = {};
+	groupedSounds[group][sound.key] = sound;
+};
+
+const onQueueEvent = (event: QueueEvent) => {
+	const sound = queuedSounds[event.key];
+	if (!sound || sound.status !== "loading") return;
+	if (event.type === "loaded") sound._onPreloaded({ key: event.key, ok: true, duration: event.duration });
+	else if (event.type === "error") sound.status = "unloaded";
+};
+
+const preloadSequentially = async (entries: PreloadEntry[], options: PreloadOptions) => {
+	const results = [];
+	const queue = [...entries].sort((a, b) => (b.priority || options.priority || 0) - (a.priority || options.priority || 0));
+	for (const { sound, fileName, path, options: loadOptions } of queue) {
+		let result;
+		try {
+			await sound.load(fileName, path, loadOptions);
+			result = { key: sound.key, ok: true, duration: sound.duration, numberOfChannels: sound.numberOfChannels };
+		} catch (error) {
+			sound.status = "unloaded";
+			result = { key: sound.key, ok: false, error: String(error) };
+		}
+		results.push(result);
+		if (options.onLoad) options.onLoad(sound, result);
+	}
+	return results;
+};
+
+const getUnloadedBatchValue = (type: BatchOpType) => {
+	if (type === "getCurrentMillis") return -1;
+	if (type === "isPlaying") return false;
+	return undefined;
+};
 
 export type Status = "unloaded" | "loading" | "loaded";
 export type FocusGain = "gain" | "gainTransient" | "gainTransientMayDuck" | "gainTransientExclusive";
@@ -33,18 +106,199 @@ export type FocusEvent = "gain" | "loss" | "lossTransient" | "lossTransientMayDu
 
 export type Options = {
 	useAlarmChannel?: boolean,
+	engine?: "player" | "pool" | "pcm" | "mixer",
+	httpCache?: boolean,
+	group?: string,
+	lazy?: boolean,
+};
+
+export type PcmCacheStats = {
+	hits: number,
+	misses: number,
+	evictions: number,
+	entries: number,
+	sizeInBytes: number,
+	maxSizeInBytes: number,
+};
+
+export type ResolverStats = {
+	entries: number,
+	hits: number,
+	misses: number,
+	hitRate: number,
+	totalResolveMs: number,
+	averageResolveMs: number,
+};
+
+export type MixerOptions = {
+	maxVoices?: number,
+};
+
+export type MixerStats = {
+	activeVoices: number,
+	maxVoices: number,
+	steals: number,
+	buffers: number,
+	sampleRate: number,
+	bufferMicros: number,
+	averageMixMicros: number,
+	maxMixMicros: number,
+	cpuLoad: number,
+};
+
+export type PlayerPoolOptions = {
+	minSize?: number,
+	maxSize?: number,
+};
+
+export type BatchOpType =
+	| "play"
+	| "pause"
+	| "stop"
+	| "reset"
+	| "release"
+	| "setVolume"
+	| "setNumberOfLoops"
+	| "setSpeed"
+	| "setCurrentMillis"
+	| "getCurrentMillis"
+	| "isPlaying";
+
+export type BatchOp = {
+	sound: Sound,
+	type: BatchOpType,
+	value?: number,
+};
+
+export type BatchResult = {
+	ok: boolean,
+	value?: number | boolean,
+	error?: string,
+};
+
+export type Progress = {
+	key: number,
+	position: number,
+	isPlaying: boolean,
+};
+
+export type PreloadEntry = {
+	sound: Sound,
+	fileName: string,
+	path?: string,
+	options?: Options,
+	priority?: number,
+};
+
+export type PreloadOptions = {
+	maxConcurrent?: number,
+	priority?: number,
+	onLoad?: (sound: Sound, result: PreloadResult) => any,
+};
+
+export type PreloadResult = {
+	key: number,
+	ok: boolean,
+	cancelled?: boolean,
+	error?: string,
+	duration?: number,
+	numberOfChannels?: number,
+};
+
+export type QueueItem = {
+	sound: Sound,
+	fileName?: string,
+	path?: string,
+	options?: Options,
+};
+
+export type QueueOptions = {
+	prepareAhead?: number,
+};
+
+export type QueueEvent = {
+	type: "loaded" | "error" | "transition",
+	key: number,
+	previousKey?: number,
+	duration?: number,
+	error?: string,
+};
+
+export type LatencyHistogram = {
+	count: number,
+	mean: number,
+	max: number,
+	p50: number,
+	p90: number,
+	p99: number,
+	buckets: Array<{ le: number | null, count: number }>,
+};
+
+export type SchemeMetrics = {
+	prepares: number,
+	errors: number,
+	errorRate: number,
 };
 
+export type Metrics = {
+	prepareLatency: LatencyHistogram,
+	startLatency: LatencyHistogram,
+	schemes: { raw: SchemeMetrics, asset: SchemeMetrics, http: SchemeMetrics, file: SchemeMetrics, content: SchemeMetrics },
+	livePlayers: number,
+	peakLivePlayers: number,
+	poolSize: number,
+	peakPoolSize: number,
+};
+
+export type LogLevel = "verbose" | "debug" | "info" | "warn" | "error" | "none";
 export type FocusOptions = {
 	useAlarmChannel?: boolean,
 	audioFocusType?: FocusGain,
 };
+export type FadeCurve = "linear" | "easeIn" | "easeOut" | "equalPower";
+export type FadeOptions = {
+	curve?: FadeCurve,
+	onEnd?: "stop" | "release",
+};
+export type CrossfadeOptions = FadeOptions & {
+	volume?: number,
+};
+export type SpriteRegions = { [name: string]: [number, number] };
+export type PeakOptions = {
+	path?: string,
+	httpCache?: boolean,
+};
+export type Peaks = {
+	durationMs: number,
+	sampleRate: number,
+	channelCount: number,
+	bucketCount: number,
+	peaks: Float32Array,
+};
+export type StartReport = {
+	startedAtNanos: number,
+	lateMs: number,
+	issueSpreadMs: number,
+	keys: { key: number, offsetMs: number, started: boolean, synchronized: boolean }[],
+};
+export type FocusAction = "ignore" | "duck" | "pause";
+export type FocusPolicy = {
+	loss?: FocusAction,
+	lossTransient?: FocusAction,
+	lossTransientCanDuck?: FocusAction,
+	duckVolume?: number,
+	resumeOnGain?: boolean,
+};
 
 class Sound {
 	static async getSystemVolume(options: Options = {}): Promise<number | void> {
 		if (IS_ANDROID) return await RNSound.getSystemVolume(options);
 	}
 	
+	static getSystemVolumeSync(options: Options = {}): number | void {
+		if (IS_ANDROID) return RNSound.getSystemVolumeSync(options);
+	}
+
 	static async setSystemVolume(value: number, options: Options = {}) {
 		if (value < 0) value = 0;
 		else if (value > 1) value = 1;
@@ -71,10 +325,254 @@ class Sound {
 		if (IS_ANDROID) eventEmitter.removeListener(AUDIO_FOCUS_EVENT, onFocus);
 	}
 
+	static async getMetrics(): Promise<Metrics | void> {
+		if (IS_ANDROID) return await RNSound.getMetrics();
+	}
+
+	static async resetMetrics() {
+		if (IS_ANDROID) await RNSound.resetMetrics();
+	}
+
+	static async setMetricsInterval(ms: number) {
+		if (IS_ANDROID) await RNSound.setMetricsInterval(ms);
+	}
+
+	static async addMetricsListener(onMetrics: (metrics: Metrics) => any) {
+		if (IS_ANDROID) eventEmitter.addListener(METRICS_EVENT, onMetrics);
+	}
+
+	static async removeMetricsListener(onMetrics: (metrics: Metrics) => any) {
+		if (IS_ANDROID) eventEmitter.removeListener(METRICS_EVENT, onMetrics);
+	}
+
+	static async setLogLevel(level: LogLevel) {
+		if (IS_ANDROID) await RNSound.setLogLevel(RNSound.LogLevels[level]);
+	}
+
+	static async setTraceEnabled(value: boolean) {
+		if (IS_ANDROID) await RNSound.setTraceEnabled(value);
+	}
+
+	static async setProgressInterval(ms: number) {
+		if (IS_ANDROID) await RNSound.setProgressInterval(ms);
+	}
+
+	static async setProgressEnabled(value: boolean) {
+		if (IS_ANDROID) await RNSound.setProgressEnabled(value);
+	}
+
+	static async addProgressListener(onProgress: (progress: Progress[]) => any) {
+		if (IS_ANDROID) eventEmitter.addListener(PROGRESS_EVENT, onProgress);
+	}
+
+	static async removeProgressListener(onProgress: (progress: Progress[]) => any) {
+		if (IS_ANDROID) eventEmitter.removeListener(PROGRESS_EVENT, onProgress);
+	}
+
+	static async setAudioFocusPolicy(policy: FocusPolicy) {
+		if (IS_ANDROID) await RNSound.setAudioFocusPolicy(policy);
+	}
+
 	static async abandonAudioFocus() {
 		if (IS_ANDROID) await RNSound.abandonAudioFocus();
 	}
 
+	static async batch(ops: BatchOp[]): Promise<BatchResult[]> {
+		if (!IS_ANDROID) {
+			const results = [];
+			for (const op of ops) results.push(await op.sound._runBatchOp(op));
+			return results;
+		}
+		const results: BatchResult[] = new Array(ops.length);
+		const nativeOps = [];
+		const nativeIndexes = [];
+		ops.forEach((op, index) => {
+			const nativeOp = op.sound._prepareBatchOp(op);
+			if (nativeOp) {
+				nativeOps.push(nativeOp);
+				nativeIndexes.push(index);
+			} else {
+				results[index] = { ok: true, value: getUnloadedBatchValue(op.type) };
+			}
+		});
+		const nativeResults = nativeOps.length ? await RNSound.executeBatch(nativeOps) : [];
+		nativeResults.forEach((result, index) => {
+			results[nativeIndexes[index]] = result;
+		});
+		ops.forEach((op, index) => {
+			if (op.type === "release" && results[index].ok) op.sound.status = "unloaded";
+		});
+		return results;
+	}
+
+	static async preload(entries: PreloadEntry[], options: PreloadOptions = {}): Promise<PreloadResult[]> {
+		const pending = entries.filter(entry => entry.sound.status === "unloaded");
+		if (!IS_ANDROID) return await preloadSequentially(pending, options);
+		const sounds = {};
+		const nativeEntries = pending.map(entry => {
+			const { sound, fileName, path, options: loadOptions = {}, priority } = entry;
+			sound._initialize();
+			sound.status = "loading";
+			sounds[sound.key] = sound;
+			trackGroup(sound, loadOptions.group);
+			return { key: sound.key, dataSource: parseDataSource(fileName, path), options: loadOptions, priority };
+		});
+		const onPreload = (result: PreloadResult) => {
+			const sound = sounds[result.key];
+			if (!sound || sound.status !== "loading") return;
+			sound._onPreloaded(result);
+			if (options.onLoad) options.onLoad(sound, result);
+		};
+		const subscription = eventEmitter.addListener(PRELOAD_EVENT, onPreload);
+		try {
+			const { onLoad, ...nativeOptions } = options;
+			const results: PreloadResult[] = await RNSound.preload(nativeEntries, nativeOptions);
+			results.forEach(onPreload);
+			return results;
+		} finally {
+			subscription.remove();
+		}
+	}
+
+	static async setGroupVolume(group: string, volume: number) {
+		if (IS_ANDROID) await RNSound.setGroupVolume(group, volume);
+	}
+
+	static async pauseGroup(group: string) {
+		if (IS_ANDROID) await RNSound.pauseGroup(group);
+	}
+
+	static async resumeGroup(group: string) {
+		if (IS_ANDROID) await RNSound.resumeGroup(group);
+	}
+
+	static async stopGroup(group: string) {
+		if (IS_ANDROID) await RNSound.stopGroup(group);
+	}
+
+	static getClockNanosSync(): number | void {
+		if (IS_ANDROID) return RNSound.getClockNanosSync();
+	}
+
+	static async playAt(sounds: Sound[], startTimeNanos: number): Promise<StartReport | void> {
+		if (IS_ANDROID) return await RNSound.playAt(sounds.map(sound => sound.key), startTimeNanos);
+		await Promise.all(sounds.map(sound => sound.play()));
+	}
+
+	static async playTogether(sounds: Sound[]): Promise<StartReport | void> {
+		if (IS_ANDROID) return await RNSound.playTogether(sounds.map(sound => sound.key));
+		await Promise.all(sounds.map(sound => sound.play()));
+	}
+
+	static async crossfade(from: Sound, to: Sound, durationMs: number, options: CrossfadeOptions = {}): Promise<boolean> {
+		const volume = options.volume === undefined ? 1 : options.volume;
+		if (!IS_ANDROID) {
+			await from.stop();
+			await to.setVolume(volume);
+			await to.play();
+			return true;
+		}
+		to.volume = volume;
+		const completed = await RNSound.crossfade(from.key, to.key, durationMs, options);
+		if (options.onEnd === "release") {
+			from.status = "unloaded";
+			trackGroup(from);
+		}
+		return completed;
+	}
+
+	static async releaseGroup(group: string) {
+		const sounds = groupedSounds[group] || {};
+		delete groupedSounds[group];
+		if (IS_ANDROID) await RNSound.releaseGroup(group);
+		else await Promise.all(Object.keys(sounds).map(key => sounds[key].release()));
+		Object.keys(sounds).forEach(key => sounds[key].status = "unloaded");
+	}
+
+	static async cancelPreload(sounds: Sound[]) {
+		if (IS_ANDROID) await RNSound.cancelPreload(sounds.map(sound => sound.key));
+	}
+
+	static async prefetch(sounds: Sound[]) {
+		if (IS_ANDROID) await RNSound.prefetch(sounds.map(sound => sound.key));
+	}
+
+	static async setQueue(items: QueueItem[], options: QueueOptions = {}) {
+		if (!IS_ANDROID) return;
+		queuedSounds = {};
+		const entries = items.map(({ sound, fileName, path, options: loadOptions = {} }) => {
+			queuedSounds[sound.key] = sound;
+			if (!fileName || sound.status !== "unloaded") return { key: sound.key };
+			sound._initialize();
+			sound.status = "loading";
+			trackGroup(sound, loadOptions.group);
+			return { key: sound.key, dataSource: parseDataSource(fileName, path), options: loadOptions };
+		});
+		if (!queueSubscription) queueSubscription = eventEmitter.addListener(QUEUE_EVENT, onQueueEvent);
+		await RNSound.setQueue(entries, options);
+	}
+
+	static async enqueue(sound: Sound, next: Sound) {
+		if (IS_ANDROID) await RNSound.enqueue(sound.key, next.key);
+	}
+
+	static async clearQueue() {
+		if (!IS_ANDROID) return;
+		queuedSounds = {};
+		await RNSound.clearQueue();
+	}
+
+	static async addQueueListener(onQueue: (event: QueueEvent) => any) {
+		if (IS_ANDROID) eventEmitter.addListener(QUEUE_EVENT, onQueue);
+	}
+
+	static async removeQueueListener(onQueue: (event: QueueEvent) => any) {
+		if (IS_ANDROID) eventEmitter.removeListener(QUEUE_EVENT, onQueue);
+	}
+
+	static async configurePlayerPool(options: PlayerPoolOptions) {
+		if (IS_ANDROID) await RNSound.configurePlayerPool(options);
+	}
+
+	static async setIdleTimeout(seconds: number) {
+		if (IS_ANDROID) await RNSound.setIdleTimeout(seconds);
+	}
+
+	static async setPcmCacheSize(maxBytes: number) {
+		if (IS_ANDROID) await RNSound.setPcmCacheSize(maxBytes);
+	}
+
+	static async getPcmCacheStats(): Promise<PcmCacheStats | void> {
+		if (IS_ANDROID) return await RNSound.getPcmCacheStats();
+	}
+
+	static async configureMixer(options: MixerOptions) {
+		if (IS_ANDROID) await RNSound.configureMixer(options);
+	}
+
+	static async getMixerStats(): Promise<MixerStats | void> {
+		if (IS_ANDROID) return await RNSound.getMixerStats();
+	}
+
+	static async getPeaks(fileName: string, bucketCount: number, options: PeakOptions = {}): Promise<Peaks | void> {
+		const { path, ...nativeOptions } = options;
+		if (!IS_ANDROID) return;
+		const result = await RNSound.getPeaks(parseDataSource(fileName, path), bucketCount, nativeOptions);
+		return { ...result, peaks: decodePeaks(result.peaks) };
+	}
+
+	static async setHttpCacheSize(maxBytes: number) {
+		if (IS_ANDROID) await RNSound.setHttpCacheSize(maxBytes);
+	}
+
+	static async getResolverStats(): Promise<ResolverStats | void> {
+		if (IS_ANDROID) return await RNSound.getResolverStats();
+	}
+
+	static async invalidateDataSource(fileName?: string, path?: string) {
+		if (IS_ANDROID) await RNSound.invalidateDataSource(fileName ? parseDataSource(fileName, path) : null);
+	}
+
 	static async setSystemMute(value: boolean) {
 		if (IS_ANDROID) await RNSound.setMute(value);
 	}
@@ -118,6 +616,8 @@ class Sound {
 	volume: number;
 	pan: number;
 	speed: number;
+	regions: SpriteRegions;
+	_regionTimer: any;
 
 	constructor() {
 		this.key = ++keyCounter;
@@ -132,6 +632,7 @@ class Sound {
 		this.volume = 1;
 		this.pan = 0;
 		this.speed = 1;
+		this.regions = {};
 	}
 
 	get isLoaded() {
@@ -146,6 +647,7 @@ class Sound {
 		if (this.status !== "unloaded") return false;
 		this._initialize();
 		this.status = "loading";
+		trackGroup(this, options.group);
 		const dataSource = parseDataSource(fileName, path);
 		const { duration, numberOfChannels } = await RNSound.load(this.key, dataSource, options);
 		if (duration) this.duration = duration;
@@ -154,6 +656,47 @@ class Sound {
 		return true;
 	}
 
+	async loadSprite(fileName: string, regions: SpriteRegions, path?: string, options: Options = {}) {
+		if (this.status !== "unloaded") return false;
+		this._initialize();
+		this.status = "loading";
+		trackGroup(this, options.group);
+		const dataSource = parseDataSource(fileName, path);
+		const result = IS_ANDROID
+			? await RNSound.loadSprite(this.key, dataSource, regions, options)
+			: await RNSound.load(this.key, dataSource, options);
+		if (result.duration) this.duration = result.duration;
+		if (result.numberOfChannels) this.numberOfChannels = result.numberOfChannels;
+		this.regions = regions;
+		this.status = "loaded";
+		return true;
+	}
+
+	async playRegion(name: string) {
+		if (!this.isLoaded) return false;
+		if (IS_ANDROID) {
+			await RNSound.playRegion(this.key, name);
+			return true;
+		}
+		const region = this.regions[name];
+		if (!region) throw new Error(`Undefined region ${name}`);
+		clearTimeout(this._regionTimer);
+		await this.setCurrentMillis(region[0]);
+		await RNSound.play(this.key);
+		this._regionTimer = setTimeout(() => this.pause(), (region[1] - region[0]) / this.speed);
+		return true;
+	}
+
+	_onPreloaded(result: PreloadResult) {
+		if (result.ok) {
+			if (result.duration) this.duration = result.duration;
+			if (result.numberOfChannels) this.numberOfChannels = result.numberOfChannels;
+			this.status = "loaded";
+		} else {
+			this.status = "unloaded";
+		}
+	}
+
 	async play(onEnd?: () => void) {
 		if (this.isLoaded) {
 			if (onEnd && IS_ANDROID) RNSound.setOnCompletionListener(this.key, onEnd);
@@ -179,6 +722,7 @@ class Sound {
 	async release() {
 		if (this.status !== "unloaded") await RNSound.release(this.key);
 		this.status = "unloaded";
+		trackGroup(this);
 	}
 
 	async setVolume(value: number) {
@@ -189,6 +733,23 @@ class Sound {
 		}
 	}
 
+	async fadeTo(value: number, durationMs: number, options: FadeOptions = {}): Promise<boolean> {
+		if (!IS_ANDROID) {
+			await this.setVolume(value);
+			if (options.onEnd === "stop") await this.stop();
+			else if (options.onEnd === "release") await this.release();
+			return true;
+		}
+		this.volume = value;
+		if (!this.isLoaded) return false;
+		const completed = await RNSound.fadeTo(this.key, value, durationMs, options);
+		if (options.onEnd === "release") {
+			this.status = "unloaded";
+			trackGroup(this);
+		}
+		return completed;
+	}
+
 	async setPan(value: number) {
 		this.pan = value;
 		if (this.isLoaded) await RNSound.setPan(this.key, this.pan);
@@ -211,11 +772,20 @@ class Sound {
 		if (this.isLoaded) return await RNSound.getCurrentMillis(this.key);
 		return -1;
 	}
+
+	getCurrentMillisSync(): number {
+		if (IS_ANDROID && this.isLoaded) return RNSound.getCurrentMillisSync(this.key);
+		return -1;
+	}
 	
 	async setCurrentMillis(ms: number) {
 		if (this.isLoaded) await RNSound.setCurrentMillis(this.key, ms);
 	}
 
+	async setProgressEnabled(value: boolean) {
+		if (IS_ANDROID) await RNSound.setKeyProgressEnabled(this.key, value);
+	}
+
 	async setSpeakerphoneOn(value: boolean) {
 		if (IS_ANDROID) await RNSound.setSpeakerphoneOn(this.key, value);
 	}
@@ -224,6 +794,45 @@ class Sound {
 		if (this.isLoaded) return await RNSound.isPlaying(this.key);
 		return false;
 	}
+
+	isPlayingSync(): boolean {
+		if (IS_ANDROID && this.isLoaded) return RNSound.isPlayingSync(this.key);
+		return false;
+	}
+
+	_prepareBatchOp(op: BatchOp): ?Object {
+		const value = op.value || 0;
+		if (op.type === "setVolume") this.volume = value;
+		else if (op.type === "setNumberOfLoops") this.numberOfLoops = value;
+		else if (op.type === "setSpeed") this.speed = value;
+		if (op.type === "release") return this.status !== "unloaded" ? { type: "release", key: this.key } : null;
+		if (!this.isLoaded) return null;
+		if (op.type === "setVolume") return { type: "setVolume", key: this.key, left: value, right: value };
+		if (op.type === "setNumberOfLoops") return { type: "setLooping", key: this.key, looping: !!value };
+		if (op.type === "setSpeed") return { type: "setSpeed", key: this.key, speed: value };
+		if (op.type === "setCurrentMillis") return { type: "setCurrentMillis", key: this.key, ms: value };
+		return { type: op.type, key: this.key };
+	}
+
+	async _runBatchOp(op: BatchOp): Promise<BatchResult> {
+		const value = op.value || 0;
+		try {
+			if (op.type === "play") await this.play();
+			else if (op.type === "pause") await this.pause();
+			else if (op.type === "stop") await this.stop();
+			else if (op.type === "reset") await this.reset();
+			else if (op.type === "release") await this.release();
+			else if (op.type === "setVolume") await this.setVolume(value);
+			else if (op.type === "setNumberOfLoops") await this.setNumberOfLoops(value);
+			else if (op.type === "setSpeed") await this.setSpeed(value);
+			else if (op.type === "setCurrentMillis") await this.setCurrentMillis(value);
+			else if (op.type === "getCurrentMillis") return { ok: true, value: await this.getCurrentMillis() };
+			else if (op.type === "isPlaying") return { ok: true, value: await this.isPlaying() };
+			return { ok: true };
+		} catch (error) {
+			return { ok: false, error: String(error) };
+		}
+	}
 }
 
 export default Sound;
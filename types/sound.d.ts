@@ -5,21 +5,221 @@ declare module "react-native-sound" {
 	export type FocusEvent = "gain" | "loss" | "lossTransient" | "lossTransientMayDuck";
 	export type Options = {
 		useAlarmChannel?: boolean,
+		engine?: "player" | "pool" | "pcm" | "mixer",
+		httpCache?: boolean,
+		group?: string,
+		lazy?: boolean,
 	};
+	export type PcmCacheStats = {
+		hits: number,
+		misses: number,
+		evictions: number,
+		entries: number,
+		sizeInBytes: number,
+		maxSizeInBytes: number,
+	};
+	export type ResolverStats = {
+		entries: number,
+		hits: number,
+		misses: number,
+		hitRate: number,
+		totalResolveMs: number,
+		averageResolveMs: number,
+	};
+	export type MixerOptions = {
+		maxVoices?: number,
+	};
+	export type MixerStats = {
+		activeVoices: number,
+		maxVoices: number,
+		steals: number,
+		buffers: number,
+		sampleRate: number,
+		bufferMicros: number,
+		averageMixMicros: number,
+		maxMixMicros: number,
+		cpuLoad: number,
+	};
+	export type PlayerPoolOptions = {
+		minSize?: number,
+		maxSize?: number,
+	};
+	export type BatchOpType =
+		| "play"
+		| "pause"
+		| "stop"
+		| "reset"
+		| "release"
+		| "setVolume"
+		| "setNumberOfLoops"
+		| "setSpeed"
+		| "setCurrentMillis"
+		| "getCurrentMillis"
+		| "isPlaying";
+	export type BatchOp = {
+		sound: Sound,
+		type: BatchOpType,
+		value?: number,
+	};
+	export type BatchResult = {
+		ok: boolean,
+		value?: number | boolean,
+		error?: string,
+	};
+	export type Progress = {
+		key: number,
+		position: number,
+		isPlaying: boolean,
+	};
+	export type PreloadEntry = {
+		sound: Sound,
+		fileName: string,
+		path?: string,
+		options?: Options,
+		priority?: number,
+	};
+	export type PreloadOptions = {
+		maxConcurrent?: number,
+		priority?: number,
+		onLoad?: (sound: Sound, result: PreloadResult) => any,
+	};
+	export type PreloadResult = {
+		key: number,
+		ok: boolean,
+		cancelled?: boolean,
+		error?: string,
+		duration?: number,
+		numberOfChannels?: number,
+	};
+	export type QueueItem = {
+		sound: Sound,
+		fileName?: string,
+		path?: string,
+		options?: Options,
+	};
+	export type QueueOptions = {
+		prepareAhead?: number,
+	};
+	export type QueueEvent = {
+		type: "loaded" | "error" | "transition",
+		key: number,
+		previousKey?: number,
+		duration?: number,
+		error?: string,
+	};
+	export type LatencyHistogram = {
+		count: number,
+		mean: number,
+		max: number,
+		p50: number,
+		p90: number,
+		p99: number,
+		buckets: Array<{ le: number | null, count: number }>,
+	};
+	export type SchemeMetrics = {
+		prepares: number,
+		errors: number,
+		errorRate: number,
+	};
+	export type Metrics = {
+		prepareLatency: LatencyHistogram,
+		startLatency: LatencyHistogram,
+		schemes: { raw: SchemeMetrics, asset: SchemeMetrics, http: SchemeMetrics, file: SchemeMetrics, content: SchemeMetrics },
+		livePlayers: number,
+		peakLivePlayers: number,
+		poolSize: number,
+		peakPoolSize: number,
+	};
+	export type LogLevel = "verbose" | "debug" | "info" | "warn" | "error" | "none";
 	export type FocusOptions = {
 		useAlarmChannel?: boolean,
 		audioFocusType?: FocusGain,
 	};
+	export type FadeCurve = "linear" | "easeIn" | "easeOut" | "equalPower";
+	export type FadeOptions = {
+		curve?: FadeCurve,
+		onEnd?: "stop" | "release",
+	};
+	export type CrossfadeOptions = FadeOptions & {
+		volume?: number,
+	};
+	export type SpriteRegions = { [name: string]: [number, number] };
+	export type PeakOptions = {
+		path?: string,
+		httpCache?: boolean,
+	};
+	export type Peaks = {
+		durationMs: number,
+		sampleRate: number,
+		channelCount: number,
+		bucketCount: number,
+		peaks: Float32Array,
+	};
+	export type StartReport = {
+		startedAtNanos: number,
+		lateMs: number,
+		issueSpreadMs: number,
+		keys: { key: number, offsetMs: number, started: boolean, synchronized: boolean }[],
+	};
+	export type FocusAction = "ignore" | "duck" | "pause";
+	export type FocusPolicy = {
+		loss?: FocusAction,
+		lossTransient?: FocusAction,
+		lossTransientCanDuck?: FocusAction,
+		duckVolume?: number,
+		resumeOnGain?: boolean,
+	};
 
-	export default class {
+	export default class Sound {
 		static getSystemVolume(options?: Options): Promise<number>;
+		static getSystemVolumeSync(options?: Options): number | void;
 		static setSystemVolume(value: number, options?: Options): Promise<void>;
 		static setVolumeControlStream(options?: Options): Promise<void>;
 		static resetVolumeControlStream(): Promise<void>;
 		static requestAudioFocus(options: FocusOptions): Promise<void | "granted" | "delayed" | "failed">;
 		static addAudioFocusListener(onFocus: (focusType: FocusEvent) => void): Promise<void>;
 		static removeAudioFocusListener(onFocus: (focusType: FocusEvent) => void): Promise<void>;
+		static setAudioFocusPolicy(policy: FocusPolicy): Promise<void>;
+		static getMetrics(): Promise<Metrics | void>;
+		static resetMetrics(): Promise<void>;
+		static setMetricsInterval(ms: number): Promise<void>;
+		static addMetricsListener(onMetrics: (metrics: Metrics) => any): Promise<void>;
+		static removeMetricsListener(onMetrics: (metrics: Metrics) => any): Promise<void>;
+		static setLogLevel(level: LogLevel): Promise<void>;
+		static setTraceEnabled(value: boolean): Promise<void>;
+		static setProgressInterval(ms: number): Promise<void>;
+		static setProgressEnabled(value: boolean): Promise<void>;
+		static addProgressListener(onProgress: (progress: Progress[]) => void): Promise<void>;
+		static removeProgressListener(onProgress: (progress: Progress[]) => void): Promise<void>;
 		static abandonAudioFocus(): Promise<void>;
+		static batch(ops: BatchOp[]): Promise<BatchResult[]>;
+		static preload(entries: PreloadEntry[], options?: PreloadOptions): Promise<PreloadResult[]>;
+		static cancelPreload(sounds: Sound[]): Promise<void>;
+		static prefetch(sounds: Sound[]): Promise<void>;
+		static setGroupVolume(group: string, volume: number): Promise<void>;
+		static pauseGroup(group: string): Promise<void>;
+		static resumeGroup(group: string): Promise<void>;
+		static stopGroup(group: string): Promise<void>;
+		static releaseGroup(group: string): Promise<void>;
+		static getClockNanosSync(): number | void;
+		static playAt(sounds: Sound[], startTimeNanos: number): Promise<StartReport | void>;
+		static playTogether(sounds: Sound[]): Promise<StartReport | void>;
+		static crossfade(from: Sound, to: Sound, durationMs: number, options?: CrossfadeOptions): Promise<boolean>;
+		static setQueue(items: QueueItem[], options?: QueueOptions): Promise<void>;
+		static enqueue(sound: Sound, next: Sound): Promise<void>;
+		static clearQueue(): Promise<void>;
+		static addQueueListener(onQueue: (event: QueueEvent) => any): Promise<void>;
+		static removeQueueListener(onQueue: (event: QueueEvent) => any): Promise<void>;
+		static configurePlayerPool(options: PlayerPoolOptions): Promise<void>;
+		static setIdleTimeout(seconds: number): Promise<void>;
+		static setPcmCacheSize(maxBytes: number): Promise<void>;
+		static getPcmCacheStats(): Promise<PcmCacheStats | void>;
+		static configureMixer(options: MixerOptions): Promise<void>;
+		static getMixerStats(): Promise<MixerStats | void>;
+		static getPeaks(fileName: string, bucketCount: number, options?: PeakOptions): Promise<Peaks | void>;
+		static setHttpCacheSize(maxBytes: number): Promise<void>;
+		static getResolverStats(): Promise<ResolverStats | void>;
+		static invalidateDataSource(fileName?: string, path?: string): Promise<void>;
 		static setSystemMute(value: boolean): Promise<void>;
 		static setEnabled(value: boolean): Promise<void>;
 		static setActive(value: boolean): Promise<void>;
@@ -38,19 +238,25 @@ declare module "react-native-sound" {
 		isLoaded: boolean;
 		setErrorCallback(onError: (error: PlaybackError) => void): void;
 		load(fileName: string, path?: string, options?: Options): Promise<void>;
+		loadSprite(fileName: string, regions: SpriteRegions, path?: string, options?: Options): Promise<boolean>;
+		playRegion(name: string): Promise<boolean>;
 		play(onEnd?: () => void): Promise<void>;
 		pause(): Promise<void>;
 		stop(): Promise<void>;
 		reset(): Promise<void>;
 		release(): Promise<void>;
 		setVolume(value: number): Promise<void>;
+		fadeTo(value: number, durationMs: number, options?: FadeOptions): Promise<boolean>;
 		setPan(value: number): Promise<void>;
 		setNumberOfLoops(value: number): Promise<void>;
 		setSpeed(value: number): Promise<void>;
 		getCurrentMillis(): Promise<number>;
+		getCurrentMillisSync(): number;
 		setCurrentMillis(ms: number): Promise<void>;
+		setProgressEnabled(value: boolean): Promise<void>;
 		setSpeakerphoneOn(value: boolean): Promise<void>;
 		isPlaying(): Promise<boolean>;
+		isPlayingSync(): boolean;
 	}
 
 	export class PlaybackError {